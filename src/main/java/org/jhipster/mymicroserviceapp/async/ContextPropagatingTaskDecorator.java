@@ -0,0 +1,87 @@
+package org.jhipster.mymicroserviceapp.async;
+
+import org.slf4j.MDC;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+
+/**
+ * Runs the asynchronous tasks with the security context, MDC and locale of the thread which submitted them, so that
+ * for instance the entities written by a task are audited with the current user rather than "system".
+ *
+ * <p>
+ *     The contexts are captured once, when the task is submitted: the security and locale contexts are shared with
+ *     the task rather than copied, and the MDC is only copied when it is not empty. The tasks submitted without any
+ *     context are not wrapped at all. The contexts of the thread running the task are restored once it is done, as
+ *     a task may run in the thread which submitted it, when the pool is saturated.
+ * </p>
+ */
+public class ContextPropagatingTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        if (securityContext.getAuthentication() == null) {
+            securityContext = null;
+        }
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        if (mdc != null && mdc.isEmpty()) {
+            mdc = null;
+        }
+        LocaleContext localeContext = LocaleContextHolder.getLocaleContext();
+        if (securityContext == null && mdc == null && localeContext == null) {
+            return runnable;
+        }
+        return new ContextPropagatingRunnable(runnable, securityContext, mdc, localeContext);
+    }
+
+    private static final class ContextPropagatingRunnable implements Runnable {
+
+        private final Runnable delegate;
+
+        private final SecurityContext securityContext;
+
+        private final Map<String, String> mdc;
+
+        private final LocaleContext localeContext;
+
+        private ContextPropagatingRunnable(Runnable delegate, SecurityContext securityContext, Map<String, String> mdc,
+                                           LocaleContext localeContext) {
+            this.delegate = delegate;
+            this.securityContext = securityContext;
+            this.mdc = mdc;
+            this.localeContext = localeContext;
+        }
+
+        @Override
+        public void run() {
+            SecurityContext previousSecurityContext = SecurityContextHolder.getContext();
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            LocaleContext previousLocaleContext = LocaleContextHolder.getLocaleContext();
+            set(securityContext, mdc, localeContext);
+            try {
+                delegate.run();
+            } finally {
+                set(previousSecurityContext, previousMdc, previousLocaleContext);
+            }
+        }
+
+        private static void set(SecurityContext securityContext, Map<String, String> mdc, LocaleContext localeContext) {
+            if (securityContext == null) {
+                SecurityContextHolder.clearContext();
+            } else {
+                SecurityContextHolder.setContext(securityContext);
+            }
+            if (mdc == null) {
+                MDC.clear();
+            } else {
+                MDC.setContextMap(mdc);
+            }
+            LocaleContextHolder.setLocaleContext(localeContext);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks the most-read books, so that they can be preloaded in the cache when the application restarts.
+ *
+ * <p>
+ *     The reads of each book are counted, for at most 4 times the warm-up size of books: the reads of the other books
+ *     are ignored until the next decay. The counts are persisted periodically to the warm-up file, most-read first,
+ *     then halved, and only the most-read half of the books are kept, so that the counts follow the recent reads and
+ *     the new books can be counted.
+ * </p>
+ */
+@Component
+public class BookAccessTracker {
+
+    private final Logger log = LoggerFactory.getLogger(BookAccessTracker.class);
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    private final ConcurrentMap<Long, LongAdder> reads = new ConcurrentHashMap<>();
+
+    private int capacity;
+
+    @PostConstruct
+    public void init() {
+        capacity = 4 * jHipsterProperties.getCache().getWarmup().getSize();
+    }
+
+    public void recordAccess(Long id) {
+        if (isTracking()) {
+            record(id, 1);
+        }
+    }
+
+    private void record(Long id, long count) {
+        LongAdder adder = reads.get(id);
+        if (adder == null) {
+            if (reads.size() >= capacity) {
+                return;
+            }
+            adder = reads.computeIfAbsent(id, key -> new LongAdder());
+        }
+        adder.add(count);
+    }
+
+    /**
+     * Get the ids of the most-read books, hottest first.
+     *
+     * @param limit the maximum number of ids
+     * @return the ids
+     */
+    public List<Long> hottest(int limit) {
+        return reads.entrySet().stream()
+            .map(entry -> new Count(entry.getKey(), entry.getValue().sum()))
+            .sorted(Comparator.comparingLong((Count count) -> count.reads).reversed())
+            .limit(limit)
+            .map(count -> count.id)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Halve the read counts, and only keep the most-read half of the books.
+     */
+    void decay() {
+        reads.keySet().retainAll(new HashSet<>(hottest(capacity / 2)));
+        for (Map.Entry<Long, LongAdder> entry : reads.entrySet()) {
+            LongAdder adder = entry.getValue();
+            adder.add(-(adder.sum() / 2));
+            if (adder.sum() <= 0) {
+                reads.remove(entry.getKey(), adder);
+            }
+        }
+    }
+
+    /**
+     * Load the ids persisted by the previous run of the application, and use them to seed the read counts: the
+     * hottest id counts as many reads as there are ids, the next one one less, and so on, so that their order is kept
+     * until the new reads outweigh it.
+     *
+     * @return the ids, hottest first
+     */
+    public List<Long> load() {
+        Path path = Paths.get(jHipsterProperties.getCache().getWarmup().getFile());
+        if (!Files.isReadable(path)) {
+            log.debug("No book warm-up file at {}", path);
+            return Collections.emptyList();
+        }
+        try {
+            List<Long> ids = Files.readAllLines(path, StandardCharsets.UTF_8).stream()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .map(Long::valueOf)
+                .collect(Collectors.toList());
+            if (isTracking()) {
+                for (int i = 0; i < ids.size(); i++) {
+                    record(ids.get(i), ids.size() - i);
+                }
+            }
+            return ids;
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Could not read the book warm-up file {}: {}", path, e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jhipster.cache.warmup.persistIntervalInMilliseconds:300000}")
+    public void persist() {
+        if (!isTracking()) {
+            return;
+        }
+        List<Long> ids = hottest(jHipsterProperties.getCache().getWarmup().getSize());
+        decay();
+        if (ids.isEmpty()) {
+            return;
+        }
+        Path path = Paths.get(jHipsterProperties.getCache().getWarmup().getFile()).toAbsolutePath();
+        try {
+            Path temporary = Files.createTempFile(path.getParent(), "book-warmup", ".tmp");
+            Files.write(temporary, ids.stream().map(String::valueOf).collect(Collectors.toList()), StandardCharsets.UTF_8);
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Persisted the {} most-read book ids to {}", ids.size(), path);
+        } catch (IOException e) {
+            log.warn("Could not write the book warm-up file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private boolean isTracking() {
+        JHipsterProperties.Cache.Warmup warmup = jHipsterProperties.getCache().getWarmup();
+        return warmup.isEnabled() && warmup.getSource() == JHipsterProperties.Cache.Warmup.Source.SKETCH;
+    }
+
+    private static final class Count {
+
+        private final Long id;
+
+        private final long reads;
+
+        private Count(Long id, long reads) {
+            this.id = id;
+            this.reads = reads;
+        }
+    }
+}
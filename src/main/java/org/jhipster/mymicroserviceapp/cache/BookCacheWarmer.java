@@ -0,0 +1,120 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+import org.jhipster.mymicroserviceapp.repository.BookRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads the most-read books in the second-level cache when the application starts.
+ *
+ * <p>
+ *     The ids come from the file persisted by the {@link BookAccessTracker}, or from the configured query. They are
+ *     loaded by parallel batches of "in" queries. Until the warm-up is done, or has timed out, the
+ *     {@link BookCacheWarmupHealthIndicator} reports the application as out of service, so that Eureka doesn't
+ *     send it any traffic.
+ * </p>
+ */
+@Component
+public class BookCacheWarmer {
+
+    private final Logger log = LoggerFactory.getLogger(BookCacheWarmer.class);
+
+    private final AtomicInteger loaded = new AtomicInteger();
+
+    private volatile boolean done;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @Inject
+    private BookRepository bookRepository;
+
+    @Inject
+    private BookAccessTracker bookAccessTracker;
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    public boolean isDone() {
+        return done || !jHipsterProperties.getCache().getWarmup().isEnabled();
+    }
+
+    public int getLoaded() {
+        return loaded.get();
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        JHipsterProperties.Cache.Warmup warmup = jHipsterProperties.getCache().getWarmup();
+        if (!warmup.isEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(warmup.getParallelism());
+        try {
+            List<Long> ids = findIds(warmup);
+            log.info("Warming up the Book cache with {} books", ids.size());
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setReadOnly(true);
+            List<CompletableFuture<Void>> batches = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i += warmup.getBatchSize()) {
+                List<Long> batch = ids.subList(i, Math.min(i + warmup.getBatchSize(), ids.size()));
+                batches.add(CompletableFuture.runAsync(() -> loaded.addAndGet(
+                    transactionTemplate.execute(status -> bookRepository.findAll(batch).size())), executor));
+            }
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture[batches.size()]))
+                .get(warmup.getTimeoutInSeconds(), TimeUnit.SECONDS);
+            log.info("Warmed up the Book cache with {} books in {} ms", loaded.get(), System.currentTimeMillis() - start);
+        } catch (TimeoutException e) {
+            log.warn("Book cache warm-up timed out after {} seconds, with {} books loaded", warmup.getTimeoutInSeconds(),
+                loaded.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RuntimeException e) {
+            log.error("Book cache warm-up failed, with {} books loaded: {}", loaded.get(), e.getMessage(), e);
+        } finally {
+            executor.shutdownNow();
+            done = true;
+        }
+    }
+
+    private List<Long> findIds(JHipsterProperties.Cache.Warmup warmup) {
+        if (warmup.getSource() == JHipsterProperties.Cache.Warmup.Source.QUERY) {
+            if (!StringUtils.hasText(warmup.getQuery())) {
+                log.warn("No book warm-up query, set jhipster.cache.warmup.query to a query of the most-read book ids");
+                return Collections.emptyList();
+            }
+            return entityManager.createQuery(warmup.getQuery(), Long.class)
+                .setMaxResults(warmup.getSize())
+                .getResultList();
+        }
+        List<Long> ids = bookAccessTracker.load();
+        return ids.size() > warmup.getSize() ? ids.subList(0, warmup.getSize()) : ids;
+    }
+}
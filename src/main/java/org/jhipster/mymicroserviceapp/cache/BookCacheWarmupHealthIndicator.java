@@ -0,0 +1,27 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+
+/**
+ * Reports the application as out of service until the Book cache is warmed up.
+ */
+@Component
+public class BookCacheWarmupHealthIndicator extends AbstractHealthIndicator {
+
+    @Inject
+    private BookCacheWarmer bookCacheWarmer;
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) throws Exception {
+        if (bookCacheWarmer.isDone()) {
+            builder.up();
+        } else {
+            builder.outOfService();
+        }
+        builder.withDetail("loaded", bookCacheWarmer.getLoaded());
+    }
+}
@@ -0,0 +1,108 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of the book ids which were not found in the database, so that repeated requests for missing books
+ * don't reach it.
+ *
+ * <p>
+ *     The id of a saved book is removed from the cache, and once more after the commit, so that a read running
+ *     concurrently with the save can't leave it there. Every id removed that way was answered as missing while it
+ *     existed, or was about to: their count over the number of answers served from the cache is reported as the
+ *     false positive ratio.
+ * </p>
+ */
+@Component
+public class BookNegativeCache implements MetricSet {
+
+    /**
+     * Estimation of the heap used by an entry: the cache node with its expiry, and the boxed id.
+     */
+    private static final long ESTIMATED_BYTES_PER_ENTRY = 96;
+
+    private final AtomicLong staleInvalidations = new AtomicLong();
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    private Cache<Long, Boolean> absentIds;
+
+    @PostConstruct
+    public void init() {
+        JHipsterProperties.Cache.Negative properties = jHipsterProperties.getCache().getNegative();
+        absentIds = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getTimeToLiveInSeconds(), TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+    }
+
+    public boolean isKnownAbsent(Long id) {
+        return jHipsterProperties.getCache().getNegative().isEnabled() && absentIds.getIfPresent(id) != null;
+    }
+
+    public void recordAbsent(Long id) {
+        if (jHipsterProperties.getCache().getNegative().isEnabled()) {
+            absentIds.put(id, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Remove a book id from the cache, now and once the current transaction (if any) is committed.
+     *
+     * @param id the id of the saved book
+     */
+    public void invalidate(Long id) {
+        remove(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    remove(id);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        absentIds.invalidateAll();
+    }
+
+    private void remove(Long id) {
+        if (absentIds.asMap().remove(id) != null) {
+            staleInvalidations.incrementAndGet();
+        }
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> gauges = new HashMap<>();
+        gauges.put("hit-ratio", (Gauge<Double>) () -> absentIds.stats().hitRate());
+        gauges.put("entries", (Gauge<Long>) () -> absentIds.estimatedSize());
+        gauges.put("bytes", (Gauge<Long>) () -> absentIds.estimatedSize() * ESTIMATED_BYTES_PER_ENTRY);
+        gauges.put("stale-invalidations", (Gauge<Long>) staleInvalidations::get);
+        gauges.put("false-positive-ratio", (Gauge<Double>) () -> {
+            long hits = absentIds.stats().hitCount();
+            return hits == 0 ? 0.0 : (double) staleInvalidations.get() / hits;
+        });
+        return Collections.unmodifiableMap(gauges);
+    }
+}
@@ -0,0 +1,21 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import java.util.List;
+
+/**
+ * Evicts the entries of the local caches, when invalidations are received from a peer.
+ */
+public interface CacheEvictor {
+
+    /**
+     * Evict the given entries.
+     *
+     * @param invalidations the entries to evict
+     */
+    void evict(List<InvalidationBatch.Invalidation> invalidations);
+
+    /**
+     * Evict all the entries.
+     */
+    void evictAll();
+}
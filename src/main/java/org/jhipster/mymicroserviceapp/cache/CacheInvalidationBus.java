@@ -0,0 +1,211 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Broadcasts the cache invalidations of this instance to its peers, and applies the ones received from them.
+ *
+ * <p>
+ *     Invalidations are published once the current transaction (if any) is committed, queued, and sent by batches
+ *     every flush interval. The queue is bounded: when it overflows, the pending invalidations are dropped and the
+ *     peers are asked to evict all their entries instead, so that they never keep a stale entry. The same happens when
+ *     the transport can't send a batch at all, for instance when no token can be created for the peers.
+ * </p>
+ */
+public class CacheInvalidationBus {
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final String nodeId;
+
+    private final CacheInvalidationTransport transport;
+
+    private final CacheEvictor evictor;
+
+    private final JHipsterProperties.Cache.Invalidation properties;
+
+    private final BlockingQueue<InvalidationBatch.Invalidation> queue;
+
+    private final AtomicBoolean overflow = new AtomicBoolean();
+
+    private final Histogram lag;
+
+    private final Meter drops;
+
+    private final Meter sent;
+
+    private final Meter received;
+
+    private ScheduledExecutorService scheduler;
+
+    public CacheInvalidationBus(String nodeId, CacheInvalidationTransport transport, CacheEvictor evictor,
+                                JHipsterProperties.Cache.Invalidation properties, MetricRegistry metricRegistry) {
+        this.nodeId = nodeId;
+        this.transport = transport;
+        this.evictor = evictor;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.lag = metricRegistry.histogram(MetricRegistry.name(CacheInvalidationBus.class, "lag"));
+        this.drops = metricRegistry.meter(MetricRegistry.name(CacheInvalidationBus.class, "drops"));
+        this.sent = metricRegistry.meter(MetricRegistry.name(CacheInvalidationBus.class, "sent"));
+        this.received = metricRegistry.meter(MetricRegistry.name(CacheInvalidationBus.class, "received"));
+        metricRegistry.register(MetricRegistry.name(CacheInvalidationBus.class, "queue-size"),
+            (Gauge<Integer>) queue::size);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Start sending the queued invalidations every flush interval.
+     */
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-invalidation-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getFlushIntervalInMilliseconds();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the scheduled flushes, and send the invalidations which are still queued.
+     */
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            flushQuietly();
+        }
+    }
+
+    /**
+     * Publish the invalidation of an entity to the peers, once the current transaction (if any) is committed.
+     *
+     * @param region the cache region of the entity
+     * @param id the id of the entity
+     */
+    public void publish(String region, Long id) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    enqueue(region, id);
+                }
+            });
+        } else {
+            enqueue(region, id);
+        }
+    }
+
+    private void enqueue(String region, Long id) {
+        if (!queue.offer(new InvalidationBatch.Invalidation(region, id, System.currentTimeMillis()))) {
+            drops.mark();
+            if (overflow.compareAndSet(false, true)) {
+                log.warn("Cache invalidation queue is full, the peers will evict all their entries");
+            }
+        }
+    }
+
+    /**
+     * Send the queued invalidations to the peers.
+     *
+     * @return the number of batches sent
+     */
+    public int flush() {
+        int batches = 0;
+        if (overflow.getAndSet(false)) {
+            int dropped = queue.size();
+            queue.clear();
+            drops.mark(dropped);
+            if (!send(new InvalidationBatch(nodeId, true, new ArrayList<>()))) {
+                return batches;
+            }
+            batches++;
+        }
+        List<InvalidationBatch.Invalidation> invalidations = new ArrayList<>();
+        while (queue.drainTo(invalidations, properties.getMaxBatchSize()) > 0) {
+            if (!send(new InvalidationBatch(nodeId, false, invalidations))) {
+                return batches;
+            }
+            batches++;
+            invalidations = new ArrayList<>();
+        }
+        return batches;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Could not send the cache invalidations: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Send a batch with the transport. If it fails, the invalidations of the batch are dropped, and the next flush
+     * asks the peers to evict all their entries.
+     *
+     * @return true if the batch was sent
+     */
+    private boolean send(InvalidationBatch batch) {
+        log.debug("Sending {}", batch);
+        try {
+            transport.send(batch);
+        } catch (RuntimeException e) {
+            log.error("Could not send {}, the peers will evict all their entries: {}", batch, e.getMessage());
+            drops.mark(batch.getInvalidations().size());
+            overflow.set(true);
+            return false;
+        }
+        sent.mark(batch.getInvalidations().size());
+        return true;
+    }
+
+    /**
+     * Apply a batch of invalidations received from a peer. The batches sent by this instance are ignored.
+     *
+     * @param batch the batch to apply
+     */
+    public void receive(InvalidationBatch batch) {
+        if (nodeId.equals(batch.getOrigin())) {
+            return;
+        }
+        log.debug("Applying {}", batch);
+        if (batch.isEvictAll()) {
+            evictor.evictAll();
+        } else {
+            evictor.evict(batch.getInvalidations());
+        }
+        long now = System.currentTimeMillis();
+        for (InvalidationBatch.Invalidation invalidation : batch.getInvalidations()) {
+            lag.update(Math.max(0, now - invalidation.getPublishedAt()));
+        }
+        received.mark(batch.getInvalidations().size());
+    }
+}
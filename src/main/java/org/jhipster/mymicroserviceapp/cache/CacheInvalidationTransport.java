@@ -0,0 +1,15 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+/**
+ * Sends the invalidation batches of an instance to its peers, which apply them with
+ * {@link CacheInvalidationBus#receive(InvalidationBatch)}.
+ */
+public interface CacheInvalidationTransport {
+
+    /**
+     * Send a batch to the peers. Failures to reach a peer must be handled (and logged) by the transport.
+     *
+     * @param batch the batch to send
+     */
+    void send(InvalidationBatch batch);
+}
@@ -0,0 +1,114 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import org.jhipster.mymicroserviceapp.config.Constants;
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+import org.jhipster.mymicroserviceapp.security.AuthoritiesConstants;
+import org.jhipster.mymicroserviceapp.security.jwt.JWTConfigurer;
+import org.jhipster.mymicroserviceapp.security.jwt.TokenProvider;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transport posting the batches to the management API of the other instances of the application registered in the
+ * service discovery.
+ *
+ * <p>
+ *     The requests that fail are counted in the "send-failures" meter. The peers they were sent to may have missed
+ *     invalidations, so the next batch sent to them asks them to evict all their entries instead.
+ * </p>
+ */
+public class DiscoveryCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private static final String INVALIDATIONS_PATH = "/management/cache-invalidations";
+
+    private final Logger log = LoggerFactory.getLogger(DiscoveryCacheInvalidationTransport.class);
+
+    private final DiscoveryClient discoveryClient;
+
+    private final TokenProvider tokenProvider;
+
+    private final String serviceId;
+
+    private final RestTemplate restTemplate;
+
+    private final Meter sendFailures;
+
+    private final Set<URI> failedPeers = ConcurrentHashMap.newKeySet();
+
+    public DiscoveryCacheInvalidationTransport(DiscoveryClient discoveryClient, TokenProvider tokenProvider,
+                                               String serviceId, JHipsterProperties.Cache.Invalidation properties,
+                                               MetricRegistry metricRegistry) {
+        this.discoveryClient = discoveryClient;
+        this.tokenProvider = tokenProvider;
+        this.serviceId = serviceId;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(properties.getConnectTimeoutInMilliseconds());
+        requestFactory.setReadTimeout(properties.getReadTimeoutInMilliseconds());
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.sendFailures = metricRegistry.meter(
+            MetricRegistry.name(DiscoveryCacheInvalidationTransport.class, "send-failures"));
+    }
+
+    @Override
+    public void send(InvalidationBatch batch) {
+        ServiceInstance self = discoveryClient.getLocalServiceInstance();
+        List<ServiceInstance> peers = discoveryClient.getInstances(serviceId);
+        Set<URI> uris = new HashSet<>();
+        HttpHeaders headers = null;
+        for (ServiceInstance peer : peers) {
+            uris.add(peer.getUri());
+            if (self != null && self.getHost().equals(peer.getHost()) && self.getPort() == peer.getPort()) {
+                continue;
+            }
+            if (headers == null) {
+                headers = headers();
+            }
+            boolean failed = failedPeers.contains(peer.getUri());
+            InvalidationBatch sent = failed ? new InvalidationBatch(batch.getOrigin(), true, new ArrayList<>()) : batch;
+            try {
+                restTemplate.postForLocation(peer.getUri() + INVALIDATIONS_PATH, new HttpEntity<>(sent, headers));
+                if (failed) {
+                    log.info("{} is reachable again and evicted all its entries", peer.getUri());
+                    failedPeers.remove(peer.getUri());
+                }
+            } catch (RestClientException e) {
+                // the peer is probably going down, it will be removed from the service discovery
+                log.warn("Could not send {} to {}: {}", sent, peer.getUri(), e.getMessage());
+                sendFailures.mark();
+                failedPeers.add(peer.getUri());
+            }
+        }
+        // forget the peers which left the service discovery
+        failedPeers.retainAll(uris);
+    }
+
+    private HttpHeaders headers() {
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken(Constants.SYSTEM_ACCOUNT, null,
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))), false);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(JWTConfigurer.AUTHORIZATION_HEADER, "Bearer " + token);
+        return headers;
+    }
+}
@@ -0,0 +1,79 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import org.jhipster.mymicroserviceapp.domain.Book;
+import org.jhipster.mymicroserviceapp.repository.BookRepository;
+import org.jhipster.mymicroserviceapp.service.BookService;
+import org.jhipster.mymicroserviceapp.service.search.BookSearchCache;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+/**
+ * Evicts the invalidated entities from the Hibernate second-level cache, and the cached books and search results
+ * which may contain them.
+ */
+@Component
+public class HibernateCacheEvictor implements CacheEvictor {
+
+    private final Logger log = LoggerFactory.getLogger(HibernateCacheEvictor.class);
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    private BookSearchCache bookSearchCache;
+
+    @Inject
+    private BookNegativeCache bookNegativeCache;
+
+    @Inject
+    private CacheManager cacheManager;
+
+    @Override
+    public void evict(List<InvalidationBatch.Invalidation> invalidations) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        org.springframework.cache.Cache booksById = cacheManager.getCache(BookService.BOOKS_BY_ID_CACHE);
+        boolean books = false;
+        for (InvalidationBatch.Invalidation invalidation : invalidations) {
+            cache.evictEntity(invalidation.getRegion(), invalidation.getId());
+            if (Book.class.getName().equals(invalidation.getRegion())) {
+                if (booksById.getNativeCache() instanceof NearCache) {
+                    // the shared tier was already updated by the instance which published the invalidation
+                    ((NearCache) booksById.getNativeCache()).evictLocal(invalidation.getId());
+                } else {
+                    booksById.evict(invalidation.getId());
+                }
+                bookNegativeCache.invalidate(invalidation.getId());
+                books = true;
+            }
+        }
+        if (books) {
+            // the update timestamps of the book table are local to each instance
+            cache.evictQueryRegion(BookRepository.FIND_ALL_QUERY_CACHE);
+            bookSearchCache.invalidate();
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        log.info("Evicting all the entities from the second-level cache");
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        org.springframework.cache.Cache booksById = cacheManager.getCache(BookService.BOOKS_BY_ID_CACHE);
+        if (booksById.getNativeCache() instanceof NearCache) {
+            ((NearCache) booksById.getNativeCache()).clearLocal();
+        } else {
+            booksById.clear();
+        }
+        bookNegativeCache.invalidateAll();
+        bookSearchCache.invalidate();
+    }
+}
@@ -0,0 +1,73 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared cache tier held in the memory of the current JVM: it stands in for a remote tier when there is a single
+ * instance, and in the tests, where several near caches simulate several instances.
+ *
+ * <p>Each region is bounded in entries, and expires its entries after the time to live.</p>
+ */
+public class InMemorySharedCacheStore implements SharedCacheStore {
+
+    private final ConcurrentMap<String, ConcurrentMap<Object, Versioned>> regions = new ConcurrentHashMap<>();
+
+    private final long maximumSize;
+
+    private final long timeToLiveInMillis;
+
+    public InMemorySharedCacheStore(long maximumSize, long timeToLiveInMillis) {
+        this.maximumSize = maximumSize;
+        this.timeToLiveInMillis = timeToLiveInMillis;
+    }
+
+    @Override
+    public Versioned get(String region, Object key) {
+        return region(region).get(key);
+    }
+
+    @Override
+    public long version(String region, Object key) {
+        Versioned versioned = region(region).get(key);
+        return versioned == null ? NO_VERSION : versioned.getVersion();
+    }
+
+    @Override
+    public Versioned put(String region, Object key, Object value) {
+        Versioned versioned = new Versioned(value, SharedCacheStore.newVersion());
+        region(region).put(key, versioned);
+        return versioned;
+    }
+
+    @Override
+    public Versioned putIfAbsent(String region, Object key, Object value) {
+        return region(region).putIfAbsent(key, new Versioned(value, SharedCacheStore.newVersion()));
+    }
+
+    @Override
+    public void evict(String region, Object key) {
+        region(region).remove(key);
+    }
+
+    @Override
+    public void clear(String region) {
+        region(region).clear();
+    }
+
+    @Override
+    public void close() {
+        regions.clear();
+    }
+
+    private ConcurrentMap<Object, Versioned> region(String region) {
+        return regions.computeIfAbsent(region, name -> Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(timeToLiveInMillis, TimeUnit.MILLISECONDS)
+            .<Object, Versioned>build()
+            .asMap());
+    }
+}
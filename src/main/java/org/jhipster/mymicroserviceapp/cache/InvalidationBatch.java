@@ -0,0 +1,117 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch of cache invalidations, sent by an instance of the application to its peers.
+ */
+public class InvalidationBatch {
+
+    private String origin;
+
+    private boolean evictAll;
+
+    private List<Invalidation> invalidations = new ArrayList<>();
+
+    public InvalidationBatch() {
+    }
+
+    public InvalidationBatch(String origin, boolean evictAll, List<Invalidation> invalidations) {
+        this.origin = origin;
+        this.evictAll = evictAll;
+        this.invalidations = invalidations;
+    }
+
+    /**
+     * The identifier of the instance that sent the batch.
+     */
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    /**
+     * Whether the peers must evict all their entries, because some invalidations were dropped.
+     */
+    public boolean isEvictAll() {
+        return evictAll;
+    }
+
+    public void setEvictAll(boolean evictAll) {
+        this.evictAll = evictAll;
+    }
+
+    public List<Invalidation> getInvalidations() {
+        return invalidations;
+    }
+
+    public void setInvalidations(List<Invalidation> invalidations) {
+        this.invalidations = invalidations;
+    }
+
+    @Override
+    public String toString() {
+        return "InvalidationBatch{" +
+            "origin='" + origin + "'" +
+            ", evictAll='" + evictAll + "'" +
+            ", invalidations='" + invalidations.size() + "'" +
+            '}';
+    }
+
+    /**
+     * The invalidation of an entity in a cache region.
+     */
+    public static class Invalidation {
+
+        private String region;
+
+        private Long id;
+
+        private long publishedAt;
+
+        public Invalidation() {
+        }
+
+        public Invalidation(String region, Long id, long publishedAt) {
+            this.region = region;
+            this.id = id;
+            this.publishedAt = publishedAt;
+        }
+
+        public String getRegion() {
+            return region;
+        }
+
+        public void setRegion(String region) {
+            this.region = region;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        /**
+         * The time at which the invalidation was published, in milliseconds since the epoch.
+         */
+        public long getPublishedAt() {
+            return publishedAt;
+        }
+
+        public void setPublishedAt(long publishedAt) {
+            this.publishedAt = publishedAt;
+        }
+
+        @Override
+        public String toString() {
+            return region + "#" + id;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared cache tier backed by the caches of a JCache cache manager, such as a clustered Ehcache configured with a
+ * Terracotta server.
+ *
+ * <p>
+ *     The version stamps of a region are stored in a separate "&lt;region&gt;.versions" cache, so that the near caches
+ *     check them without transferring the values. A stamp is written after its value, and only replaces the stamp it
+ *     was compared with, so that concurrent writes can't leave a value with the stamp of another one. The caches which are not configured by the cache manager are
+ *     created with the default configuration of the provider, and expire their entries after the time to live.
+ * </p>
+ */
+public class JCacheSharedCacheStore implements SharedCacheStore {
+
+    private static final String VERSIONS_SUFFIX = ".versions";
+
+    private final CacheManager cacheManager;
+
+    private final long timeToLiveInSeconds;
+
+    public JCacheSharedCacheStore(CacheManager cacheManager, long timeToLiveInSeconds) {
+        this.cacheManager = cacheManager;
+        this.timeToLiveInSeconds = timeToLiveInSeconds;
+    }
+
+    @Override
+    public Versioned get(String region, Object key) {
+        return values(region).get(key);
+    }
+
+    @Override
+    public long version(String region, Object key) {
+        Long version = versions(region).get(key);
+        return version == null ? NO_VERSION : version;
+    }
+
+    @Override
+    public Versioned put(String region, Object key, Object value) {
+        Versioned versioned = new Versioned(value, SharedCacheStore.newVersion());
+        values(region).put(key, versioned);
+        stamp(region, key);
+        return versioned;
+    }
+
+    @Override
+    public Versioned putIfAbsent(String region, Object key, Object value) {
+        Versioned versioned = new Versioned(value, SharedCacheStore.newVersion());
+        if (!values(region).putIfAbsent(key, versioned)) {
+            return values(region).get(key);
+        }
+        stamp(region, key);
+        return null;
+    }
+
+    /**
+     * Set the version stamp of an entry to the stamp of its current value. The value and its stamp are in two caches,
+     * so the stamp is only replaced if it has not changed since the value was read: a concurrent writer either sees
+     * the stamp written here and replaces it with the stamp of its newer value, or makes this replace fail and the
+     * stamp is read again, so that the stamp left is the one of the last value.
+     */
+    private void stamp(String region, Object key) {
+        Cache<Object, Versioned> values = values(region);
+        Cache<Object, Long> versions = versions(region);
+        while (true) {
+            Long stamped = versions.get(key);
+            Versioned current = values.get(key);
+            if (current == null) {
+                // evicted meanwhile
+                if (stamped == null || versions.remove(key, stamped)) {
+                    return;
+                }
+            } else if (stamped == null) {
+                if (versions.putIfAbsent(key, current.getVersion())) {
+                    return;
+                }
+            } else if (stamped == current.getVersion() || versions.replace(key, stamped, current.getVersion())) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void evict(String region, Object key) {
+        // the version first, so that the near caches stop serving their copy as soon as possible
+        versions(region).remove(key);
+        values(region).remove(key);
+    }
+
+    @Override
+    public void clear(String region) {
+        versions(region).clear();
+        values(region).clear();
+    }
+
+    @Override
+    public void close() {
+        cacheManager.close();
+    }
+
+    private Cache<Object, Versioned> values(String region) {
+        return cache(region, Versioned.class);
+    }
+
+    private Cache<Object, Long> versions(String region) {
+        return cache(region + VERSIONS_SUFFIX, Long.class);
+    }
+
+    private <V> Cache<Object, V> cache(String name, Class<V> type) {
+        Cache<Object, V> cache = cacheManager.getCache(name, Object.class, type);
+        if (cache != null) {
+            return cache;
+        }
+        synchronized (this) {
+            cache = cacheManager.getCache(name, Object.class, type);
+            if (cache == null) {
+                cache = cacheManager.createCache(name, new MutableConfiguration<Object, V>()
+                    .setTypes(Object.class, type)
+                    .setExpiryPolicyFactory(CreatedExpiryPolicy.factoryOf(
+                        new Duration(TimeUnit.SECONDS, timeToLiveInSeconds))));
+            }
+            return cache;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Transport delivering the batches to the buses registered in the same JVM.
+ *
+ * <p>Used when there is no service discovery, and by the tests to run several instances in one JVM.</p>
+ */
+public class LocalCacheInvalidationTransport implements CacheInvalidationTransport {
+
+    private final List<CacheInvalidationBus> buses = new CopyOnWriteArrayList<>();
+
+    public void register(CacheInvalidationBus bus) {
+        buses.add(bus);
+    }
+
+    @Override
+    public void send(InvalidationBatch batch) {
+        for (CacheInvalidationBus bus : buses) {
+            bus.receive(batch);
+        }
+    }
+}
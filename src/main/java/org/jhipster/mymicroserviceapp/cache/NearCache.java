@@ -0,0 +1,173 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Two-level cache: a small near cache on the heap of this instance (L1), in front of a tier shared by all the
+ * instances (L2), so that the hot set is loaded once for the cluster instead of once per instance.
+ *
+ * <p>
+ *     The L1 keeps the version stamp of its copies: once a copy is older than the revalidation interval, its stamp is
+ *     compared to the one of the shared tier, and the value is only fetched again when it changed. Writes go through
+ *     to the shared tier, so the copies of the other instances are stale for the revalidation interval at most.
+ * </p>
+ */
+public class NearCache implements Cache {
+
+    private final String name;
+
+    private final SharedCacheStore store;
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Copy> near;
+
+    private final long revalidateAfterInMillis;
+
+    private final Meter nearHits;
+
+    private final Meter revalidations;
+
+    private final Meter sharedHits;
+
+    private final Meter misses;
+
+    public NearCache(String name, SharedCacheStore store, long maximumSize, long revalidateAfterInMillis,
+                     MetricRegistry metricRegistry) {
+        this.name = name;
+        this.store = store;
+        this.near = Caffeine.newBuilder().maximumSize(maximumSize).build();
+        this.revalidateAfterInMillis = revalidateAfterInMillis;
+        this.nearHits = metricRegistry.meter(MetricRegistry.name(NearCache.class, name, "near-hits"));
+        this.revalidations = metricRegistry.meter(MetricRegistry.name(NearCache.class, name, "revalidations"));
+        this.sharedHits = metricRegistry.meter(MetricRegistry.name(NearCache.class, name, "shared-hits"));
+        this.misses = metricRegistry.meter(MetricRegistry.name(NearCache.class, name, "misses"));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Copy copy = near.getIfPresent(key);
+        if (copy != null) {
+            long now = System.currentTimeMillis();
+            if (now - copy.validatedAt < revalidateAfterInMillis) {
+                nearHits.mark();
+                return new SimpleValueWrapper(copy.value);
+            }
+            if (store.version(name, key) == copy.version) {
+                revalidations.mark();
+                copy.validatedAt = now;
+                return new SimpleValueWrapper(copy.value);
+            }
+            near.asMap().remove(key, copy);
+        }
+        SharedCacheStore.Versioned versioned = store.get(name, key);
+        if (versioned == null) {
+            misses.mark();
+            return null;
+        }
+        sharedHits.mark();
+        near.put(key, new Copy(versioned));
+        return new SimpleValueWrapper(versioned.getValue());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        try {
+            T value = valueLoader.call();
+            put(key, value);
+            return value;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        near.put(key, new Copy(store.put(name, key, value)));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        SharedCacheStore.Versioned existing = store.putIfAbsent(name, key, value);
+        if (existing != null) {
+            return new SimpleValueWrapper(existing.getValue());
+        }
+        near.invalidate(key);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        store.evict(name, key);
+        near.invalidate(key);
+    }
+
+    @Override
+    public void clear() {
+        store.clear(name);
+        near.invalidateAll();
+    }
+
+    /**
+     * Evict an entry from the near cache only, when another instance already evicted or updated the shared one.
+     */
+    public void evictLocal(Object key) {
+        near.invalidate(key);
+    }
+
+    /**
+     * Evict all the entries of the near cache only.
+     */
+    public void clearLocal() {
+        near.invalidateAll();
+    }
+
+    private static final class Copy {
+
+        private final Object value;
+
+        private final long version;
+
+        private volatile long validatedAt;
+
+        private Copy(SharedCacheStore.Versioned versioned) {
+            this.value = versioned.getValue();
+            this.version = versioned.getVersion();
+            this.validatedAt = System.currentTimeMillis();
+        }
+    }
+}
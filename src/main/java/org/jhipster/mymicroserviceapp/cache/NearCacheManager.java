@@ -0,0 +1,58 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache manager serving the given caches from a {@link NearCache} in front of a shared tier, and the other ones from
+ * another cache manager.
+ */
+public class NearCacheManager implements CacheManager {
+
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    private final CacheManager delegate;
+
+    private final Set<String> nearCacheNames;
+
+    private final SharedCacheStore store;
+
+    private final long maximumSize;
+
+    private final long revalidateAfterInMillis;
+
+    private final MetricRegistry metricRegistry;
+
+    public NearCacheManager(CacheManager delegate, Collection<String> nearCacheNames, SharedCacheStore store,
+                            long maximumSize, long revalidateAfterInMillis, MetricRegistry metricRegistry) {
+        this.delegate = delegate;
+        this.nearCacheNames = new LinkedHashSet<>(nearCacheNames);
+        this.store = store;
+        this.maximumSize = maximumSize;
+        this.revalidateAfterInMillis = revalidateAfterInMillis;
+        this.metricRegistry = metricRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!nearCacheNames.contains(name)) {
+            return delegate.getCache(name);
+        }
+        return caches.computeIfAbsent(name, key ->
+            new NearCache(key, store, maximumSize, revalidateAfterInMillis, metricRegistry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(delegate.getCacheNames());
+        names.addAll(nearCacheNames);
+        return names;
+    }
+}
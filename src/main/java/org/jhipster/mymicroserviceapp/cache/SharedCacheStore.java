@@ -0,0 +1,107 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cache tier shared by all the instances, behind their {@link NearCache}.
+ *
+ * <p>
+ *     Every value is stored with a version stamp, which changes each time the entry is written. The stamp of an entry
+ *     can be read without its value, so that the near caches can check that their copy is still current cheaply.
+ * </p>
+ */
+public interface SharedCacheStore {
+
+    /**
+     * Stamp of the missing entries.
+     */
+    long NO_VERSION = 0;
+
+    /**
+     * @return the value of an entry with its version stamp, or null if there is none
+     */
+    Versioned get(String region, Object key);
+
+    /**
+     * @return the version stamp of an entry, or {@link #NO_VERSION} if there is none
+     */
+    long version(String region, Object key);
+
+    /**
+     * Store a value, with a new version stamp.
+     *
+     * @return the stored value with its version stamp
+     */
+    Versioned put(String region, Object key, Object value);
+
+    /**
+     * Store a value, with a new version stamp, unless there is already one.
+     *
+     * @return the existing value with its version stamp, or null if the value was stored
+     */
+    Versioned putIfAbsent(String region, Object key, Object value);
+
+    void evict(String region, Object key);
+
+    void clear(String region);
+
+    /**
+     * Release the resources of the shared tier, when the application stops.
+     */
+    void close();
+
+    /**
+     * @return a new version stamp: stamps are random, so that instances don't need to agree on a counter
+     */
+    static long newVersion() {
+        long version;
+        do {
+            version = ThreadLocalRandom.current().nextLong();
+        } while (version == NO_VERSION);
+        return version;
+    }
+
+    /**
+     * A value with its version stamp.
+     */
+    final class Versioned implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object value;
+
+        private final long version;
+
+        public Versioned(Object value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Versioned && version == ((Versioned) o).version;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(version);
+        }
+
+        @Override
+        public String toString() {
+            return "Versioned{" +
+                "version=" + version +
+                ", value=" + value +
+                '}';
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.io.Serializable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache protecting the loaders of its entries against stampedes.
+ *
+ * <ul>
+ *     <li>Single flight: on a miss, only one caller runs the loader of a key, the others wait for its value.</li>
+ *     <li>Probabilistic early refresh ("XFetch"): the closer an entry is to its expiry, and the longer it took to
+ *     load, the more likely a caller triggers its reload before it expires, so that popular entries are refreshed
+ *     once instead of expiring for everyone at once. The reload runs on the refresh executor: all the callers,
+ *     including the one which triggered it, keep getting the current value.</li>
+ *     <li>Expired entries are never returned, even if the target cache still holds them.</li>
+ *     <li>Null values are never cached.</li>
+ * </ul>
+ *
+ * <p>The values are stored in the target cache with their expiry and load time.</p>
+ */
+public class SingleFlightCache implements Cache {
+
+    private final Logger log = LoggerFactory.getLogger(SingleFlightCache.class);
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+    private final Cache target;
+
+    private final long timeToLiveInMillis;
+
+    private final double beta;
+
+    private final Executor refreshExecutor;
+
+    private final Meter hits;
+
+    private final Meter misses;
+
+    private final Meter earlyRefreshes;
+
+    private final Timer loadTimer;
+
+    public SingleFlightCache(Cache target, long timeToLiveInMillis, double beta, Executor refreshExecutor,
+                             MetricRegistry metricRegistry) {
+        this.target = target;
+        this.timeToLiveInMillis = timeToLiveInMillis;
+        this.beta = beta;
+        this.refreshExecutor = refreshExecutor;
+        this.hits = metricRegistry.meter(MetricRegistry.name(SingleFlightCache.class, target.getName(), "hits"));
+        this.misses = metricRegistry.meter(MetricRegistry.name(SingleFlightCache.class, target.getName(), "misses"));
+        this.earlyRefreshes = metricRegistry.meter(
+            MetricRegistry.name(SingleFlightCache.class, target.getName(), "early-refreshes"));
+        this.loadTimer = metricRegistry.timer(MetricRegistry.name(SingleFlightCache.class, target.getName(), "loads"));
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return target.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CachedValue cached = lookup(key);
+        if (cached == null) {
+            misses.mark();
+            return null;
+        }
+        hits.mark();
+        return new SimpleValueWrapper(cached.value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CachedValue cached = lookup(key);
+        if (cached == null) {
+            misses.mark();
+            return load(key, valueLoader);
+        }
+        hits.mark();
+        if (shouldRefreshEarly(cached) && !loads.containsKey(key)) {
+            refresh(key, valueLoader);
+        }
+        return (T) cached.value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+        } else {
+            target.put(key, new CachedValue(value, 0, System.currentTimeMillis() + timeToLiveInMillis));
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        if (value == null) {
+            return get(key);
+        }
+        ValueWrapper existing = target.putIfAbsent(key,
+            new CachedValue(value, 0, System.currentTimeMillis() + timeToLiveInMillis));
+        return existing == null ? null : new SimpleValueWrapper(unwrap(existing.get()).value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        // a value being loaded may predate the eviction: the loader evicts it once stored
+        loads.remove(key);
+        target.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        loads.clear();
+        target.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T load(Object key, Callable<T> valueLoader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> current = loads.putIfAbsent(key, flight);
+        if (current != null) {
+            return (T) await(key, current, valueLoader);
+        }
+        return load(key, flight, valueLoader);
+    }
+
+    /**
+     * Reload an entry on the refresh executor, unless it is already being loaded.
+     */
+    private void refresh(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        if (loads.putIfAbsent(key, flight) != null) {
+            return;
+        }
+        earlyRefreshes.mark();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, flight, valueLoader);
+                } catch (ValueRetrievalException e) {
+                    log.warn("Could not refresh the entry {} of the cache {}: {}", key, getName(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Skipping the refresh of the entry {} of the cache {}: {}", key, getName(), e.getMessage());
+            loads.remove(key, flight);
+            flight.complete(null);
+        }
+    }
+
+    private <T> T load(Object key, CompletableFuture<Object> flight, Callable<T> valueLoader) {
+        try {
+            long start = System.nanoTime();
+            T value = valueLoader.call();
+            // a load time of 0 marks the values which were put, and are never refreshed early
+            long loadTimeInNanos = Math.max(1, System.nanoTime() - start);
+            loadTimer.update(loadTimeInNanos, TimeUnit.NANOSECONDS);
+            if (value != null) {
+                target.put(key, new CachedValue(value, loadTimeInNanos,
+                    System.currentTimeMillis() + timeToLiveInMillis));
+            }
+            if (!loads.remove(key, flight)) {
+                target.evict(key);
+            }
+            flight.complete(value);
+            return value;
+        } catch (Throwable e) {
+            loads.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private Object await(Object key, CompletableFuture<Object> flight, Callable<?> valueLoader) {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } catch (ExecutionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    private CachedValue lookup(Object key) {
+        ValueWrapper wrapper = target.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            return null;
+        }
+        CachedValue cached = unwrap(wrapper.get());
+        return cached.expiresAt <= System.currentTimeMillis() ? null : cached;
+    }
+
+    private CachedValue unwrap(Object value) {
+        return value instanceof CachedValue ? (CachedValue) value : new CachedValue(value, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * XFetch: refresh if now - loadTime * beta * ln(random) >= expiry, random being uniform in (0, 1].
+     */
+    private boolean shouldRefreshEarly(CachedValue cached) {
+        if (cached.loadTimeInNanos == 0 || beta <= 0) {
+            return false;
+        }
+        double random = 1 - ThreadLocalRandom.current().nextDouble();
+        double loadTimeInMillis = cached.loadTimeInNanos / 1e6;
+        return System.currentTimeMillis() - loadTimeInMillis * beta * Math.log(random) >= cached.expiresAt;
+    }
+
+    private static final class CachedValue implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object value;
+
+        private final long loadTimeInNanos;
+
+        private final long expiresAt;
+
+        private CachedValue(Object value, long loadTimeInNanos, long expiresAt) {
+            this.value = value;
+            this.loadTimeInNanos = loadTimeInNanos;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+
+import com.codahale.metrics.MetricRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache manager decorating the caches of another cache manager with {@link SingleFlightCache}, so that the
+ * {@code @Cacheable(sync = true)} methods are protected against cache stampedes.
+ *
+ * <p>Puts and evictions are done once the current transaction (if any) is committed. The early refreshes run on the
+ * refresh executor.</p>
+ */
+public class SingleFlightCacheManager implements CacheManager {
+
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    private final CacheManager delegate;
+
+    private final JHipsterProperties.Cache properties;
+
+    private final Executor refreshExecutor;
+
+    private final MetricRegistry metricRegistry;
+
+    public SingleFlightCacheManager(CacheManager delegate, JHipsterProperties.Cache properties,
+                                    Executor refreshExecutor, MetricRegistry metricRegistry) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.refreshExecutor = refreshExecutor;
+        this.metricRegistry = metricRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        long timeToLiveInMillis = TimeUnit.SECONDS.toMillis(
+            properties.getEhcache().getRegion(name).getTimeToLiveSeconds());
+        return caches.computeIfAbsent(name, key -> new TransactionAwareCacheDecorator(
+            new SingleFlightCache(target, timeToLiveInMillis, properties.getEarlyRefreshBeta(), refreshExecutor,
+                metricRegistry)));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
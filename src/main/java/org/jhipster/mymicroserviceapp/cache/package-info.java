@@ -0,0 +1,4 @@
+/**
+ * Cluster-wide caching: invalidation of the local caches, and near caches in front of a shared tier.
+ */
+package org.jhipster.mymicroserviceapp.cache;
@@ -1,5 +1,6 @@
 package org.jhipster.mymicroserviceapp.config;
 
+import org.jhipster.mymicroserviceapp.async.ContextPropagatingTaskDecorator;
 import org.jhipster.mymicroserviceapp.async.ExceptionHandlingAsyncTaskExecutor;
 
 import org.slf4j.Logger;
@@ -34,6 +35,8 @@ public class AsyncConfiguration implements AsyncConfigurer {
         executor.setMaxPoolSize(jHipsterProperties.getAsync().getMaxPoolSize());
         executor.setQueueCapacity(jHipsterProperties.getAsync().getQueueCapacity());
         executor.setThreadNamePrefix("mymicroserviceapp-Executor-");
+        // the tasks run with the security context, MDC and locale of the thread which submitted them
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
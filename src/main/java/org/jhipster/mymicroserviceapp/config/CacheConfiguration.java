@@ -1,32 +1,275 @@
 package org.jhipster.mymicroserviceapp.config;
 
 
+import org.jhipster.mymicroserviceapp.cache.InMemorySharedCacheStore;
+import org.jhipster.mymicroserviceapp.cache.JCacheSharedCacheStore;
+import org.jhipster.mymicroserviceapp.cache.NearCacheManager;
+import org.jhipster.mymicroserviceapp.cache.SharedCacheStore;
+import org.jhipster.mymicroserviceapp.cache.SingleFlightCacheManager;
+import org.jhipster.mymicroserviceapp.config.jcache.ObjectSizeWeigher;
+import org.jhipster.mymicroserviceapp.repository.BookRepository;
+import org.jhipster.mymicroserviceapp.service.BookService;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.expiry.Duration;
+import org.ehcache.expiry.Expirations;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.cache.internal.StandardQueryCache;
+import org.hibernate.cache.spi.UpdateTimestampsCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.data.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.jcache.JCacheCacheManager;
 import org.springframework.context.annotation.*;
+import org.springframework.core.io.DefaultResourceLoader;
 
 import javax.annotation.PreDestroy;
 import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.spi.CachingProvider;
 import javax.inject.Inject;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableCaching
 @AutoConfigureAfter(value = { MetricsConfiguration.class })
 @AutoConfigureBefore(value = { WebConfigurer.class, DatabaseConfiguration.class })
-public class CacheConfiguration {
+public class CacheConfiguration extends CachingConfigurerSupport {
 
     private final Logger log = LoggerFactory.getLogger(CacheConfiguration.class);
 
     @Inject
     private CacheManager cacheManager;
 
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    @Inject
+    @Qualifier("taskExecutor")
+    private Executor taskExecutor;
+
     @PreDestroy
     public void destroy() {
         log.info("Closing Cache Manager");
         cacheManager.close();
     }
 
+    /**
+     * Cache manager used by the caching annotations, protecting the loaders against cache stampedes. The early
+     * refreshes run on the async task executor.
+     *
+     * <p>When the near caches are enabled, the caches listed in "jhipster.cache.near.caches" are served from a
+     * near cache in front of the shared tier, instead of the local JCache cache manager.</p>
+     */
+    @Override
+    public org.springframework.cache.CacheManager cacheManager() {
+        JCacheCacheManager jCacheCacheManager = new JCacheCacheManager(cacheManager);
+        jCacheCacheManager.afterPropertiesSet();
+        org.springframework.cache.CacheManager target = jCacheCacheManager;
+        JHipsterProperties.Cache.Near near = jHipsterProperties.getCache().getNear();
+        if (near.isEnabled()) {
+            target = new NearCacheManager(jCacheCacheManager, near.getCaches(), sharedCacheStore(),
+                near.getMaximumSize(), near.getRevalidateAfterInMilliseconds(), metricRegistry);
+        }
+        return new SingleFlightCacheManager(target, jHipsterProperties.getCache(), taskExecutor, metricRegistry);
+    }
+
+    /**
+     * The tier shared by the instances, behind the near caches.
+     */
+    @Bean(destroyMethod = "close")
+    public SharedCacheStore sharedCacheStore() {
+        JHipsterProperties.Cache.Near near = jHipsterProperties.getCache().getNear();
+        if (near.getSharedUri() == null) {
+            log.debug("Using an in-memory shared cache tier, with {} entries per region", near.getSharedMaximumSize());
+            return new InMemorySharedCacheStore(near.getSharedMaximumSize(),
+                TimeUnit.SECONDS.toMillis(near.getSharedTimeToLiveInSeconds()));
+        }
+        log.debug("Using the shared cache tier configured by {}", near.getSharedUri());
+        CachingProvider provider = Caching.getCachingProvider(near.getSharedProvider());
+        try {
+            return new JCacheSharedCacheStore(provider.getCacheManager(
+                new DefaultResourceLoader().getResource(near.getSharedUri()).getURI(), getClass().getClassLoader()),
+                near.getSharedTimeToLiveInSeconds());
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load the shared cache configuration " + near.getSharedUri(), e);
+        }
+    }
+
+    /**
+     * Create the Hibernate regions with the tiers configured in the "jhipster.cache.ehcache" properties.
+     *
+     * <p>The JCache provider is selected with the "spring.cache.jcache.provider" property: Ehcache supports the
+     * off-heap and disk tiers, while Caffeine only has a heap tier, but its W-TinyLFU policy admits new entries
+     * according to their frequency, so that scans don't push the hot entries out of the cache.</p>
+     *
+     * <p>The heap tier of a region is sized either in entries ("heapEntries"), or in MB ("heapMb"), from the estimated
+     * size of its entries: as a Book weighs from 200 bytes to 20 KB, a count of entries doesn't bound the heap used
+     * by the cache. The regions sized in MB must fit in the "maxBytesLocalHeap" budget, or the application fails to
+     * start.</p>
+     *
+     * <p>The query cache regions of Hibernate are declared in ehcache.xml, which Caffeine doesn't read: they are created
+     * here for Caffeine, with the same bounds, so that Hibernate doesn't create them unbounded.</p>
+     *
+     * <p>This is a separate configuration, as the customizer is needed to create the cache manager that is injected
+     * in {@link CacheConfiguration}.</p>
+     */
+    @Configuration
+    protected static class CacheRegionsConfiguration {
+
+        private final Logger log = LoggerFactory.getLogger(CacheRegionsConfiguration.class);
+
+        /**
+         * Hibernate keeps a timestamp per table, which must outlive the cached queries: this region never expires.
+         */
+        private static final long UPDATE_TIMESTAMPS_CACHE_ENTRIES = 1000;
+
+        @Inject
+        private JHipsterProperties jHipsterProperties;
+
+        @Bean
+        public JCacheManagerCustomizer cacheManagerCustomizer() {
+            return cm -> {
+                List<JHipsterProperties.Cache.Ehcache.Region> regions = new ArrayList<>();
+                if (cm.getCachingProvider() instanceof CaffeineCachingProvider) {
+                    createUpdateTimestampsCache(cm);
+                    regions.add(createCache(cm, StandardQueryCache.class.getName()));
+                }
+                regions.add(createCache(cm, org.jhipster.mymicroserviceapp.domain.Book.class.getName()));
+                regions.add(createCache(cm, BookService.BOOKS_BY_ID_CACHE));
+                regions.add(createCache(cm, BookRepository.FIND_ALL_QUERY_CACHE));
+                // jhipster-needle-ehcache-add-entry
+                jHipsterProperties.getCache().getEhcache().getRegions()
+                    .forEach(region -> regions.add(createCache(cm, region.getName())));
+                checkHeapBudget(regions);
+            };
+        }
+
+        private JHipsterProperties.Cache.Ehcache.Region createCache(CacheManager cm, String name) {
+            if (cm.getCache(name) != null) {
+                log.debug("Cache region {} is already configured", name);
+                return null;
+            }
+            JHipsterProperties.Cache.Ehcache.Region region = jHipsterProperties.getCache().getEhcache().getRegion(name);
+            if (cm.getCachingProvider() instanceof CaffeineCachingProvider) {
+                createCaffeineCache(cm, region);
+            } else {
+                createEhcache(cm, region);
+            }
+            return region;
+        }
+
+        private void createUpdateTimestampsCache(CacheManager cm) {
+            if (cm.getCache(UpdateTimestampsCache.class.getName()) != null) {
+                return;
+            }
+            log.debug("Creating Caffeine cache region {} with {} entries", UpdateTimestampsCache.class.getName(),
+                UPDATE_TIMESTAMPS_CACHE_ENTRIES);
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(UPDATE_TIMESTAMPS_CACHE_ENTRIES));
+            configuration.setStatisticsEnabled(true);
+            configuration.setManagementEnabled(true);
+            cm.createCache(UpdateTimestampsCache.class.getName(), configuration);
+        }
+
+        private void checkHeapBudget(List<JHipsterProperties.Cache.Ehcache.Region> regions) {
+            long budget = jHipsterProperties.getCache().getEhcache().getMaxBytesLocalHeapInBytes();
+            long total = 0;
+            List<String> sizedInEntries = new ArrayList<>();
+            for (JHipsterProperties.Cache.Ehcache.Region region : regions) {
+                if (region == null) {
+                    continue;
+                }
+                if (region.getHeapMb() != null) {
+                    total += region.getHeapMb() * 1024 * 1024;
+                } else {
+                    sizedInEntries.add(region.getName());
+                }
+            }
+            if (total > budget) {
+                throw new IllegalStateException("The cache regions use " + total + " bytes of heap, over the " +
+                    "maxBytesLocalHeap budget of " + budget + " bytes");
+            }
+            if (!sizedInEntries.isEmpty()) {
+                log.warn("The heap of the cache regions {} is sized in entries, and is not bounded by the " +
+                    "maxBytesLocalHeap budget", sizedInEntries);
+            }
+        }
+
+        private void createEhcache(CacheManager cm, JHipsterProperties.Cache.Ehcache.Region region) {
+            log.debug("Creating cache region {} with {} heap entries ({} MB), {} MB off-heap and {} MB on disk",
+                region.getName(), region.getHeapEntries(), region.getHeapMb(), region.getOffHeapMb(), region.getDiskMb());
+            ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.newResourcePoolsBuilder();
+            if (region.getHeapMb() != null) {
+                resourcePools = resourcePools.heap(region.getHeapMb(), MemoryUnit.MB);
+            } else {
+                resourcePools = resourcePools.heap(region.getHeapEntries(), EntryUnit.ENTRIES);
+            }
+            if (region.getOffHeapMb() > 0) {
+                resourcePools = resourcePools.offheap(region.getOffHeapMb(), MemoryUnit.MB);
+            }
+            if (region.getDiskMb() > 0) {
+                resourcePools = resourcePools.disk(region.getDiskMb(), MemoryUnit.MB, region.getDiskPersistent());
+            }
+            cm.createCache(region.getName(), Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+                    .withExpiry(Expirations.timeToLiveExpiration(Duration.of(region.getTimeToLiveSeconds(), TimeUnit.SECONDS)))
+                    .build()));
+        }
+
+        private void createCaffeineCache(CacheManager cm, JHipsterProperties.Cache.Ehcache.Region region) {
+            log.debug("Creating Caffeine cache region {} with {} entries ({} MB)", region.getName(),
+                region.getHeapEntries(), region.getHeapMb());
+            if (region.getOffHeapMb() > 0 || region.getDiskMb() > 0) {
+                log.warn("Caffeine has no off-heap or disk tier, only the heap tier of {} is used", region.getName());
+            }
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            if (region.getHeapMb() != null) {
+                configuration.setMaximumWeight(OptionalLong.of(region.getHeapMb() * 1024 * 1024));
+                configuration.setWeigherFactory(Optional.of(FactoryBuilder.factoryOf(ObjectSizeWeigher.class)));
+            } else {
+                configuration.setMaximumSize(OptionalLong.of(region.getHeapEntries()));
+            }
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(region.getTimeToLiveSeconds())));
+            // keeps the statistics read by the JCacheStatisticsCollector
+            configuration.setStatisticsEnabled(true);
+            configuration.setManagementEnabled(true);
+            cm.createCache(region.getName(), configuration);
+        }
+    }
+
+    /**
+     * Make sure the regions are created by the customizer before Hibernate starts and creates missing regions with
+     * the default configuration.
+     */
+    @Configuration
+    protected static class CacheManagerEntityManagerFactoryDependencyConfiguration
+        extends EntityManagerFactoryDependsOnPostProcessor {
+
+        public CacheManagerEntityManagerFactoryDependencyConfiguration() {
+            super("cacheManager");
+        }
+    }
 }
@@ -0,0 +1,61 @@
+package org.jhipster.mymicroserviceapp.config;
+
+import org.jhipster.mymicroserviceapp.cache.CacheEvictor;
+import org.jhipster.mymicroserviceapp.cache.CacheInvalidationBus;
+import org.jhipster.mymicroserviceapp.cache.CacheInvalidationTransport;
+import org.jhipster.mymicroserviceapp.cache.DiscoveryCacheInvalidationTransport;
+import org.jhipster.mymicroserviceapp.cache.LocalCacheInvalidationTransport;
+import org.jhipster.mymicroserviceapp.security.jwt.TokenProvider;
+
+import com.codahale.metrics.MetricRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.inject.Inject;
+import java.util.UUID;
+
+@Configuration
+public class CacheInvalidationConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(CacheInvalidationConfiguration.class);
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    @Inject
+    private TokenProvider tokenProvider;
+
+    @Inject
+    private CacheEvictor cacheEvictor;
+
+    @Inject
+    private ObjectProvider<DiscoveryClient> discoveryClientProvider;
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public CacheInvalidationBus cacheInvalidationBus() {
+        String nodeId = applicationName + ":" + UUID.randomUUID();
+        JHipsterProperties.Cache.Invalidation properties = jHipsterProperties.getCache().getInvalidation();
+        DiscoveryClient discoveryClient = discoveryClientProvider.getIfAvailable();
+        CacheInvalidationTransport transport;
+        if (discoveryClient != null) {
+            log.debug("Broadcasting the cache invalidations to the {} instances of the service discovery", applicationName);
+            transport = new DiscoveryCacheInvalidationTransport(discoveryClient, tokenProvider, applicationName,
+                properties, metricRegistry);
+        } else {
+            log.debug("No service discovery, the cache invalidations are not broadcast");
+            transport = new LocalCacheInvalidationTransport();
+        }
+        return new CacheInvalidationBus(nodeId, transport, cacheEvictor, properties, metricRegistry);
+    }
+}
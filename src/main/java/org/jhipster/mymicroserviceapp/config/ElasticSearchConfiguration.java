@@ -1,23 +1,38 @@
 package org.jhipster.mymicroserviceapp.config;
 
 import java.io.IOException;
+import java.util.Map;
 
+import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.client.Client;
+import org.elasticsearch.common.settings.Settings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.elasticsearch.annotations.Mapping;
+import org.springframework.data.elasticsearch.annotations.Setting;
 import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
 import org.springframework.data.elasticsearch.core.EntityMapper;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 @Configuration
 public class ElasticSearchConfiguration {
 
     @Bean
-    public ElasticsearchTemplate elasticsearchTemplate(Client client, Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
-        return new ElasticsearchTemplate(client, new CustomEntityMapper(jackson2ObjectMapperBuilder.createXmlMapper(false).build()));
+    public EntityMapper entityMapper(Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+        return new CustomEntityMapper(jackson2ObjectMapperBuilder.createXmlMapper(false).build());
+    }
+
+    @Bean
+    public ElasticsearchTemplate elasticsearchTemplate(Client client, EntityMapper entityMapper,
+                                                       JHipsterProperties jHipsterProperties) {
+        return new IndexSettingsElasticsearchTemplate(client, entityMapper, jHipsterProperties.getSearch());
     }
 
     public class CustomEntityMapper implements EntityMapper {
@@ -40,4 +55,85 @@ public class ElasticSearchConfiguration {
             return objectMapper.readValue(source, clazz);
         }
     }
+
+    /**
+     * ElasticsearchTemplate creating the indices of the entities annotated with {@link Setting} from their settings
+     * file (analyzers...), completed with the shards, replicas and refresh interval configured in the
+     * "jhipster.search.index" properties.
+     *
+     * <p>The mapping declared with the {@link Mapping} annotation is then put by the repository, right after the
+     * index is created.</p>
+     *
+     * <p>When "jhipster.search.fuzzy.phonetic" is set, the "author" field gets a "phonetic" subfield, analyzed with
+     * the double metaphone encoder of the analysis-phonetic plugin, which must then be installed on every node of
+     * the cluster. The indices created before the flag was set must be created again to get it.</p>
+     */
+    public static class IndexSettingsElasticsearchTemplate extends ElasticsearchTemplate {
+
+        private static final String PHONETIC_FIELD = "author";
+
+        private static final String PHONETIC_ANALYZER = "phonetic_name";
+
+        private final Logger log = LoggerFactory.getLogger(IndexSettingsElasticsearchTemplate.class);
+
+        private final JHipsterProperties.Search.Index index;
+
+        private final boolean phonetic;
+
+        public IndexSettingsElasticsearchTemplate(Client client, EntityMapper entityMapper,
+                                                  JHipsterProperties.Search search) {
+            super(client, entityMapper);
+            this.index = search.getIndex();
+            this.phonetic = search.getFuzzy().isPhonetic();
+        }
+
+        @Override
+        public <T> boolean createIndex(Class<T> clazz) {
+            Setting setting = clazz.getAnnotation(Setting.class);
+            if (setting == null || indexExists(clazz)) {
+                return super.createIndex(clazz);
+            }
+            String indexName = getPersistentEntityFor(clazz).getIndexName();
+            log.info("Creating the Elasticsearch index {} with {} shards and {} replicas", indexName,
+                index.getShards(), index.getReplicas());
+            Settings.Builder settings = Settings.settingsBuilder()
+                .loadFromSource(readFileFromClasspath(setting.settingPath()))
+                .put("index.number_of_shards", index.getShards())
+                .put("index.number_of_replicas", index.getReplicas())
+                .put("index.refresh_interval", index.getRefreshInterval());
+            if (phonetic) {
+                settings
+                    .put("index.analysis.filter." + PHONETIC_ANALYZER + ".type", "phonetic")
+                    .put("index.analysis.filter." + PHONETIC_ANALYZER + ".encoder", "double_metaphone")
+                    .put("index.analysis.analyzer." + PHONETIC_ANALYZER + ".type", "custom")
+                    .put("index.analysis.analyzer." + PHONETIC_ANALYZER + ".tokenizer", "standard")
+                    .putArray("index.analysis.analyzer." + PHONETIC_ANALYZER + ".filter",
+                        "lowercase", "asciifolding", PHONETIC_ANALYZER);
+            }
+            Map<String, String> indexSettings = settings.build().getAsMap();
+            return createIndex(indexName, indexSettings);
+        }
+
+        @Override
+        public <T> boolean putMapping(Class<T> clazz) {
+            Mapping mapping = clazz.getAnnotation(Mapping.class);
+            if (!phonetic || mapping == null) {
+                return super.putMapping(clazz);
+            }
+            String type = getPersistentEntityFor(clazz).getIndexType();
+            try {
+                JsonNode source = new ObjectMapper().readTree(readFileFromClasspath(mapping.mappingPath()));
+                JsonNode field = source.path(type).path("properties").path(PHONETIC_FIELD);
+                if (field.isObject()) {
+                    ObjectNode subfield = ((ObjectNode) field).with("fields").putObject("phonetic");
+                    subfield.put("type", "string");
+                    subfield.put("analyzer", PHONETIC_ANALYZER);
+                    subfield.putObject("norms").put("enabled", false);
+                }
+                return putMapping(clazz, source.toString());
+            } catch (IOException e) {
+                throw new ElasticsearchException("Could not read the mapping of " + clazz.getSimpleName(), e);
+            }
+        }
+    }
 }
@@ -3,6 +3,10 @@ package org.jhipster.mymicroserviceapp.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.web.cors.CorsConfiguration;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Properties specific to JHipster.
  *
@@ -31,6 +35,10 @@ public class JHipsterProperties {
 
     private final Ribbon ribbon = new Ribbon();
 
+    private final Search search = new Search();
+
+    private final RateLimiting rateLimiting = new RateLimiting();
+
     public Async getAsync() {
         return async;
     }
@@ -67,6 +75,14 @@ public class JHipsterProperties {
         return ribbon;
     }
 
+    public Search getSearch() {
+        return search;
+    }
+
+    public RateLimiting getRateLimiting() {
+        return rateLimiting;
+    }
+
     public static class Async {
 
         private int corePoolSize = 2;
@@ -125,14 +141,64 @@ public class JHipsterProperties {
     public static class Cache {
         private final Ehcache ehcache = new Ehcache();
 
+        private final Invalidation invalidation = new Invalidation();
+
+        private final Warmup warmup = new Warmup();
+
+        private final Negative negative = new Negative();
+
+        private final Near near = new Near();
+
+        private double earlyRefreshBeta = 1.0;
+
         public Ehcache getEhcache() {
             return ehcache;
         }
 
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+
+        public Warmup getWarmup() {
+            return warmup;
+        }
+
+        public Negative getNegative() {
+            return negative;
+        }
+
+        public Near getNear() {
+            return near;
+        }
+
+        /**
+         * Eagerness of the probabilistic early refresh of the Spring caches: 0 disables it, and values above 1
+         * refresh earlier.
+         */
+        public double getEarlyRefreshBeta() {
+            return earlyRefreshBeta;
+        }
+
+        public void setEarlyRefreshBeta(double earlyRefreshBeta) {
+            this.earlyRefreshBeta = earlyRefreshBeta;
+        }
+
         public static class Ehcache {
 
             private String maxBytesLocalHeap = "16M";
 
+            private long timeToLiveSeconds = 3600;
+
+            private long heapEntries = 100;
+
+            private long offHeapMb = 0;
+
+            private long diskMb = 0;
+
+            private boolean diskPersistent = false;
+
+            private List<Region> regions = new ArrayList<>();
+
             public String getMaxBytesLocalHeap() {
                 return maxBytesLocalHeap;
             }
@@ -140,6 +206,485 @@ public class JHipsterProperties {
             public void setMaxBytesLocalHeap(String maxBytesLocalHeap) {
                 this.maxBytesLocalHeap = maxBytesLocalHeap;
             }
+
+            /**
+             * The heap budget of the regions sized in bytes, parsed from "maxBytesLocalHeap" (e.g. "256M").
+             */
+            public long getMaxBytesLocalHeapInBytes() {
+                String value = maxBytesLocalHeap.trim().toUpperCase();
+                int exponent = "KMG".indexOf(value.charAt(value.length() - 1)) + 1;
+                if (exponent > 0) {
+                    value = value.substring(0, value.length() - 1);
+                }
+                long multiplier = 1L << (10 * exponent);
+                return Long.parseLong(value.trim()) * multiplier;
+            }
+
+            public long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public long getOffHeapMb() {
+                return offHeapMb;
+            }
+
+            public void setOffHeapMb(long offHeapMb) {
+                this.offHeapMb = offHeapMb;
+            }
+
+            public long getDiskMb() {
+                return diskMb;
+            }
+
+            public void setDiskMb(long diskMb) {
+                this.diskMb = diskMb;
+            }
+
+            public boolean isDiskPersistent() {
+                return diskPersistent;
+            }
+
+            public void setDiskPersistent(boolean diskPersistent) {
+                this.diskPersistent = diskPersistent;
+            }
+
+            public List<Region> getRegions() {
+                return regions;
+            }
+
+            public void setRegions(List<Region> regions) {
+                this.regions = regions;
+            }
+
+            /**
+             * Get the configuration of a region, falling back to the default values for the unset ones.
+             *
+             * @param name the name of the region
+             * @return the configuration of the region
+             */
+            public Region getRegion(String name) {
+                Region region = regions.stream()
+                    .filter(r -> name.equals(r.getName()))
+                    .findFirst()
+                    .orElseGet(Region::new);
+                Region result = new Region();
+                result.setName(name);
+                result.setTimeToLiveSeconds(region.getTimeToLiveSeconds() != null ? region.getTimeToLiveSeconds() : timeToLiveSeconds);
+                result.setHeapEntries(region.getHeapEntries() != null ? region.getHeapEntries() : heapEntries);
+                result.setHeapMb(region.getHeapMb());
+                result.setOffHeapMb(region.getOffHeapMb() != null ? region.getOffHeapMb() : offHeapMb);
+                result.setDiskMb(region.getDiskMb() != null ? region.getDiskMb() : diskMb);
+                result.setDiskPersistent(region.getDiskPersistent() != null ? region.getDiskPersistent() : diskPersistent);
+                return result;
+            }
+
+            /**
+             * Tiers of a cache region. Unset values fall back to the values of the Ehcache properties.
+             *
+             * <p>
+             *     Each tier must be larger than the one above it: the heap tier holds the hottest entries, the
+             *     off-heap tier (which needs -XX:MaxDirectMemorySize to cover the sum of all the off-heap tiers) the
+             *     rest of the hot set without GC cost, and the disk tier (which needs a persistence directory in
+             *     ehcache.xml) what doesn't fit in memory.
+             * </p>
+             */
+            public static class Region {
+
+                private String name;
+
+                private Long timeToLiveSeconds;
+
+                private Long heapEntries;
+
+                private Long heapMb;
+
+                private Long offHeapMb;
+
+                private Long diskMb;
+
+                private Boolean diskPersistent;
+
+                public String getName() {
+                    return name;
+                }
+
+                public void setName(String name) {
+                    this.name = name;
+                }
+
+                public Long getTimeToLiveSeconds() {
+                    return timeToLiveSeconds;
+                }
+
+                public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                    this.timeToLiveSeconds = timeToLiveSeconds;
+                }
+
+                public Long getHeapEntries() {
+                    return heapEntries;
+                }
+
+                public void setHeapEntries(Long heapEntries) {
+                    this.heapEntries = heapEntries;
+                }
+
+                /**
+                 * Size of the heap tier in MB, estimated from the size of the entries: when set, it replaces
+                 * "heapEntries", and counts in the "maxBytesLocalHeap" budget.
+                 */
+                public Long getHeapMb() {
+                    return heapMb;
+                }
+
+                public void setHeapMb(Long heapMb) {
+                    this.heapMb = heapMb;
+                }
+
+                public Long getOffHeapMb() {
+                    return offHeapMb;
+                }
+
+                public void setOffHeapMb(Long offHeapMb) {
+                    this.offHeapMb = offHeapMb;
+                }
+
+                public Long getDiskMb() {
+                    return diskMb;
+                }
+
+                public void setDiskMb(Long diskMb) {
+                    this.diskMb = diskMb;
+                }
+
+                public Boolean getDiskPersistent() {
+                    return diskPersistent;
+                }
+
+                public void setDiskPersistent(Boolean diskPersistent) {
+                    this.diskPersistent = diskPersistent;
+                }
+            }
+        }
+
+        /**
+         * Broadcast of the cache evictions to the other instances of the application.
+         */
+        public static class Invalidation {
+
+            private boolean enabled = true;
+
+            private int queueCapacity = 10000;
+
+            private int maxBatchSize = 500;
+
+            private long flushIntervalInMilliseconds = 100;
+
+            private int connectTimeoutInMilliseconds = 1000;
+
+            private int readTimeoutInMilliseconds = 2000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public int getMaxBatchSize() {
+                return maxBatchSize;
+            }
+
+            public void setMaxBatchSize(int maxBatchSize) {
+                this.maxBatchSize = maxBatchSize;
+            }
+
+            public long getFlushIntervalInMilliseconds() {
+                return flushIntervalInMilliseconds;
+            }
+
+            public void setFlushIntervalInMilliseconds(long flushIntervalInMilliseconds) {
+                this.flushIntervalInMilliseconds = flushIntervalInMilliseconds;
+            }
+
+            public int getConnectTimeoutInMilliseconds() {
+                return connectTimeoutInMilliseconds;
+            }
+
+            public void setConnectTimeoutInMilliseconds(int connectTimeoutInMilliseconds) {
+                this.connectTimeoutInMilliseconds = connectTimeoutInMilliseconds;
+            }
+
+            public int getReadTimeoutInMilliseconds() {
+                return readTimeoutInMilliseconds;
+            }
+
+            public void setReadTimeoutInMilliseconds(int readTimeoutInMilliseconds) {
+                this.readTimeoutInMilliseconds = readTimeoutInMilliseconds;
+            }
+        }
+
+        /**
+         * Preloading of the most-read books in the second-level cache, when the application starts.
+         */
+        public static class Warmup {
+
+            public enum Source {
+                /** The ids persisted periodically from the book access frequencies */
+                SKETCH,
+                /**
+                 * The ids returned by the configured JPQL query, most-read first. There is no default query, as the
+                 * books don't record their reads: it must rank them by a read count maintained elsewhere.
+                 */
+                QUERY
+            }
+
+            private boolean enabled = false;
+
+            private Source source = Source.SKETCH;
+
+            private String file = "book-warmup.ids";
+
+            private long persistIntervalInMilliseconds = 300000;
+
+            private String query;
+
+            private int size = 1000;
+
+            private int batchSize = 100;
+
+            private int parallelism = 4;
+
+            private int timeoutInSeconds = 60;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Source getSource() {
+                return source;
+            }
+
+            public void setSource(Source source) {
+                this.source = source;
+            }
+
+            public String getFile() {
+                return file;
+            }
+
+            public void setFile(String file) {
+                this.file = file;
+            }
+
+            public long getPersistIntervalInMilliseconds() {
+                return persistIntervalInMilliseconds;
+            }
+
+            public void setPersistIntervalInMilliseconds(long persistIntervalInMilliseconds) {
+                this.persistIntervalInMilliseconds = persistIntervalInMilliseconds;
+            }
+
+            public String getQuery() {
+                return query;
+            }
+
+            public void setQuery(String query) {
+                this.query = query;
+            }
+
+            public int getSize() {
+                return size;
+            }
+
+            public void setSize(int size) {
+                this.size = size;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            public void setParallelism(int parallelism) {
+                this.parallelism = parallelism;
+            }
+
+            public int getTimeoutInSeconds() {
+                return timeoutInSeconds;
+            }
+
+            public void setTimeoutInSeconds(int timeoutInSeconds) {
+                this.timeoutInSeconds = timeoutInSeconds;
+            }
+        }
+
+        /**
+         * Cache of the book ids which were not found in the database.
+         */
+        public static class Negative {
+
+            private boolean enabled = true;
+
+            private long maximumSize = 100000;
+
+            private long timeToLiveInSeconds = 60;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getMaximumSize() {
+                return maximumSize;
+            }
+
+            public void setMaximumSize(long maximumSize) {
+                this.maximumSize = maximumSize;
+            }
+
+            public long getTimeToLiveInSeconds() {
+                return timeToLiveInSeconds;
+            }
+
+            public void setTimeToLiveInSeconds(long timeToLiveInSeconds) {
+                this.timeToLiveInSeconds = timeToLiveInSeconds;
+            }
+        }
+
+        public static class Near {
+
+            private boolean enabled = false;
+
+            private List<String> caches = new ArrayList<>(Collections.singletonList("booksById"));
+
+            private long maximumSize = 1000;
+
+            private long revalidateAfterInMilliseconds = 1000;
+
+            private String sharedProvider = "org.ehcache.jsr107.EhcacheCachingProvider";
+
+            private String sharedUri;
+
+            private long sharedMaximumSize = 10000;
+
+            private long sharedTimeToLiveInSeconds = 3600;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            /**
+             * The Spring caches served from a near cache in front of the shared tier.
+             */
+            public List<String> getCaches() {
+                return caches;
+            }
+
+            public void setCaches(List<String> caches) {
+                this.caches = caches;
+            }
+
+            public long getMaximumSize() {
+                return maximumSize;
+            }
+
+            public void setMaximumSize(long maximumSize) {
+                this.maximumSize = maximumSize;
+            }
+
+            /**
+             * Age of a near copy after which its version stamp is checked against the shared tier, which is also the
+             * longest time another instance may serve a stale copy.
+             */
+            public long getRevalidateAfterInMilliseconds() {
+                return revalidateAfterInMilliseconds;
+            }
+
+            public void setRevalidateAfterInMilliseconds(long revalidateAfterInMilliseconds) {
+                this.revalidateAfterInMilliseconds = revalidateAfterInMilliseconds;
+            }
+
+            public String getSharedProvider() {
+                return sharedProvider;
+            }
+
+            public void setSharedProvider(String sharedProvider) {
+                this.sharedProvider = sharedProvider;
+            }
+
+            /**
+             * The configuration of the JCache cache manager of the shared tier (e.g. a clustered Ehcache
+             * configuration): when not set, the shared tier is held in the memory of this instance.
+             */
+            public String getSharedUri() {
+                return sharedUri;
+            }
+
+            public void setSharedUri(String sharedUri) {
+                this.sharedUri = sharedUri;
+            }
+
+            /**
+             * The number of entries per region of the shared tier, when it is held in the memory of this instance.
+             */
+            public long getSharedMaximumSize() {
+                return sharedMaximumSize;
+            }
+
+            public void setSharedMaximumSize(long sharedMaximumSize) {
+                this.sharedMaximumSize = sharedMaximumSize;
+            }
+
+            /**
+             * The time to live of the entries of the shared tier, unless the shared cache manager configures their
+             * region.
+             */
+            public long getSharedTimeToLiveInSeconds() {
+                return sharedTimeToLiveInSeconds;
+            }
+
+            public void setSharedTimeToLiveInSeconds(long sharedTimeToLiveInSeconds) {
+                this.sharedTimeToLiveInSeconds = sharedTimeToLiveInSeconds;
+            }
         }
     }
 
@@ -170,9 +715,24 @@ public class JHipsterProperties {
 
         private final Authentication authentication = new Authentication();
 
+        private List<String> bypassPaths = new ArrayList<>();
+
         public Authentication getAuthentication() {
             return authentication;
         }
+
+        /**
+         * Ant patterns of the paths whose GET and HEAD requests skip the security filters, e.g. the health probes:
+         * they are not authenticated, so only paths that are safe to expose belong here.
+         */
+        public List<String> getBypassPaths() {
+            return bypassPaths;
+        }
+
+        public void setBypassPaths(List<String> bypassPaths) {
+            this.bypassPaths = bypassPaths;
+        }
+
         public static class Authentication {
 
             private final Jwt jwt = new Jwt();
@@ -189,6 +749,10 @@ public class JHipsterProperties {
 
                 private long tokenValidityInSecondsForRememberMe = 2592000;
 
+                private final VerifiedTokens verifiedTokens = new VerifiedTokens();
+
+                private final Jwks jwks = new Jwks();
+
                 public String getSecret() {
                     return secret;
                 }
@@ -212,6 +776,91 @@ public class JHipsterProperties {
                 public void setTokenValidityInSecondsForRememberMe(long tokenValidityInSecondsForRememberMe) {
                     this.tokenValidityInSecondsForRememberMe = tokenValidityInSecondsForRememberMe;
                 }
+
+                public VerifiedTokens getVerifiedTokens() {
+                    return verifiedTokens;
+                }
+
+                public Jwks getJwks() {
+                    return jwks;
+                }
+
+                public static class VerifiedTokens {
+
+                    private boolean enabled = true;
+
+                    private long maxBytes = 10 * 1024 * 1024;
+
+                    public boolean isEnabled() {
+                        return enabled;
+                    }
+
+                    public void setEnabled(boolean enabled) {
+                        this.enabled = enabled;
+                    }
+
+                    /**
+                     * Estimated heap used by the cache of the verified tokens, beyond which the least used ones are
+                     * evicted.
+                     */
+                    public long getMaxBytes() {
+                        return maxBytes;
+                    }
+
+                    public void setMaxBytes(long maxBytes) {
+                        this.maxBytes = maxBytes;
+                    }
+                }
+
+                public static class Jwks {
+
+                    private String uri;
+
+                    private long refreshIntervalInMilliseconds = 300000;
+
+                    private int connectTimeoutInMilliseconds = 2000;
+
+                    private int readTimeoutInMilliseconds = 5000;
+
+                    /**
+                     * The JSON Web Key Set verifying the RS256 and ES256 tokens (e.g. "file:jwks.json" or
+                     * "https://uaa/.well-known/jwks.json"): when not set, only the HS512 tokens are accepted.
+                     */
+                    public String getUri() {
+                        return uri;
+                    }
+
+                    public void setUri(String uri) {
+                        this.uri = uri;
+                    }
+
+                    public long getRefreshIntervalInMilliseconds() {
+                        return refreshIntervalInMilliseconds;
+                    }
+
+                    public void setRefreshIntervalInMilliseconds(long refreshIntervalInMilliseconds) {
+                        this.refreshIntervalInMilliseconds = refreshIntervalInMilliseconds;
+                    }
+
+                    /**
+                     * Timeouts of the download of the key set, when it is an HTTP URL.
+                     */
+                    public int getConnectTimeoutInMilliseconds() {
+                        return connectTimeoutInMilliseconds;
+                    }
+
+                    public void setConnectTimeoutInMilliseconds(int connectTimeoutInMilliseconds) {
+                        this.connectTimeoutInMilliseconds = connectTimeoutInMilliseconds;
+                    }
+
+                    public int getReadTimeoutInMilliseconds() {
+                        return readTimeoutInMilliseconds;
+                    }
+
+                    public void setReadTimeoutInMilliseconds(int readTimeoutInMilliseconds) {
+                        this.readTimeoutInMilliseconds = readTimeoutInMilliseconds;
+                    }
+                }
             }
         }
     }
@@ -501,4 +1150,372 @@ public class JHipsterProperties {
             this.displayOnActiveProfiles = displayOnActiveProfiles;
         }
     }
+
+    public static class Search {
+
+        private HydrationMode hydrationMode = HydrationMode.HYBRID;
+
+        private final ResultCache resultCache = new ResultCache();
+
+        private final Index index = new Index();
+
+        private final Bulk bulk = new Bulk();
+
+        private final Fuzzy fuzzy = new Fuzzy();
+
+        public HydrationMode getHydrationMode() {
+            return hydrationMode;
+        }
+
+        public void setHydrationMode(HydrationMode hydrationMode) {
+            this.hydrationMode = hydrationMode;
+        }
+
+        public ResultCache getResultCache() {
+            return resultCache;
+        }
+
+        public Index getIndex() {
+            return index;
+        }
+
+        public Bulk getBulk() {
+            return bulk;
+        }
+
+        public Fuzzy getFuzzy() {
+            return fuzzy;
+        }
+
+        public static class Index {
+
+            private int shards = 5;
+
+            private int replicas = 1;
+
+            private String refreshInterval = "1s";
+
+            public int getShards() {
+                return shards;
+            }
+
+            public void setShards(int shards) {
+                this.shards = shards;
+            }
+
+            public int getReplicas() {
+                return replicas;
+            }
+
+            public void setReplicas(int replicas) {
+                this.replicas = replicas;
+            }
+
+            public String getRefreshInterval() {
+                return refreshInterval;
+            }
+
+            public void setRefreshInterval(String refreshInterval) {
+                this.refreshInterval = refreshInterval;
+            }
+        }
+
+        public static class Bulk {
+
+            private int autoThreshold = 1000;
+
+            private int actions = 1000;
+
+            private int sizeInMb = 5;
+
+            private int concurrentRequests = 1;
+
+            private int flushIntervalInSeconds = 5;
+
+            private long leaseTimeToLiveInSeconds = 300;
+
+            private long apiHoldTimeoutInSeconds = 3600;
+
+            public int getAutoThreshold() {
+                return autoThreshold;
+            }
+
+            public void setAutoThreshold(int autoThreshold) {
+                this.autoThreshold = autoThreshold;
+            }
+
+            public int getActions() {
+                return actions;
+            }
+
+            public void setActions(int actions) {
+                this.actions = actions;
+            }
+
+            public int getSizeInMb() {
+                return sizeInMb;
+            }
+
+            public void setSizeInMb(int sizeInMb) {
+                this.sizeInMb = sizeInMb;
+            }
+
+            public int getConcurrentRequests() {
+                return concurrentRequests;
+            }
+
+            public void setConcurrentRequests(int concurrentRequests) {
+                this.concurrentRequests = concurrentRequests;
+            }
+
+            public int getFlushIntervalInSeconds() {
+                return flushIntervalInSeconds;
+            }
+
+            public void setFlushIntervalInSeconds(int flushIntervalInSeconds) {
+                this.flushIntervalInSeconds = flushIntervalInSeconds;
+            }
+
+            /**
+             * How long the bulk-load mode held by an instance survives it, if it stops without leaving the mode: the
+             * leases of the live instances are renewed every minute.
+             */
+            public long getLeaseTimeToLiveInSeconds() {
+                return leaseTimeToLiveInSeconds;
+            }
+
+            public void setLeaseTimeToLiveInSeconds(long leaseTimeToLiveInSeconds) {
+                this.leaseTimeToLiveInSeconds = leaseTimeToLiveInSeconds;
+            }
+
+            /**
+             * How long the bulk-load mode entered from the management API is held, at most.
+             */
+            public long getApiHoldTimeoutInSeconds() {
+                return apiHoldTimeoutInSeconds;
+            }
+
+            public void setApiHoldTimeoutInSeconds(long apiHoldTimeoutInSeconds) {
+                this.apiHoldTimeoutInSeconds = apiHoldTimeoutInSeconds;
+            }
+        }
+
+        public static class Fuzzy {
+
+            private int maxEdits = 2;
+
+            private int prefixLength = 1;
+
+            private int maxExpansions = 50;
+
+            private boolean phonetic = false;
+
+            public int getMaxEdits() {
+                return maxEdits;
+            }
+
+            public void setMaxEdits(int maxEdits) {
+                this.maxEdits = maxEdits;
+            }
+
+            public int getPrefixLength() {
+                return prefixLength;
+            }
+
+            public void setPrefixLength(int prefixLength) {
+                this.prefixLength = prefixLength;
+            }
+
+            public int getMaxExpansions() {
+                return maxExpansions;
+            }
+
+            public void setMaxExpansions(int maxExpansions) {
+                this.maxExpansions = maxExpansions;
+            }
+
+            public boolean isPhonetic() {
+                return phonetic;
+            }
+
+            public void setPhonetic(boolean phonetic) {
+                this.phonetic = phonetic;
+            }
+        }
+
+        public static class ResultCache {
+
+            private boolean enabled = true;
+
+            private long maxBytes = 16 * 1024 * 1024;
+
+            private long timeToLiveInSeconds = 300;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getMaxBytes() {
+                return maxBytes;
+            }
+
+            public void setMaxBytes(long maxBytes) {
+                this.maxBytes = maxBytes;
+            }
+
+            public long getTimeToLiveInSeconds() {
+                return timeToLiveInSeconds;
+            }
+
+            public void setTimeToLiveInSeconds(long timeToLiveInSeconds) {
+                this.timeToLiveInSeconds = timeToLiveInSeconds;
+            }
+        }
+
+        /**
+         * How search hits are turned into results.
+         */
+        public enum HydrationMode {
+
+            /** Use the index documents as they are. */
+            INDEX,
+
+            /** Use the index documents whose version matches the database, reload the others. */
+            HYBRID,
+
+            /** Reload every hit from the database. */
+            DATABASE
+        }
+    }
+
+    public static class RateLimiting {
+
+        private boolean enabled = false;
+
+        private List<Group> groups = new ArrayList<>();
+
+        private long maximumKeys = 100000;
+
+        private final Cluster cluster = new Cluster();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * The endpoint groups, each with its own limit per client: a request counts against the first group
+         * matching its path, and the requests matching no group are not limited.
+         */
+        public List<Group> getGroups() {
+            return groups;
+        }
+
+        public void setGroups(List<Group> groups) {
+            this.groups = groups;
+        }
+
+        /**
+         * Number of clients and groups whose state is kept in memory, beyond which the least recently seen are
+         * forgotten.
+         */
+        public long getMaximumKeys() {
+            return maximumKeys;
+        }
+
+        public void setMaximumKeys(long maximumKeys) {
+            this.maximumKeys = maximumKeys;
+        }
+
+        public Cluster getCluster() {
+            return cluster;
+        }
+
+        public static class Group {
+
+            private String name;
+
+            private List<String> paths = new ArrayList<>();
+
+            private double requestsPerSecond = 10;
+
+            private int burst = 20;
+
+            public String getName() {
+                return name;
+            }
+
+            public void setName(String name) {
+                this.name = name;
+            }
+
+            /**
+             * Ant patterns of the paths of the group, e.g. "/api/_search/**".
+             */
+            public List<String> getPaths() {
+                return paths;
+            }
+
+            public void setPaths(List<String> paths) {
+                this.paths = paths;
+            }
+
+            /**
+             * Sustained rate allowed to each client.
+             */
+            public double getRequestsPerSecond() {
+                return requestsPerSecond;
+            }
+
+            public void setRequestsPerSecond(double requestsPerSecond) {
+                this.requestsPerSecond = requestsPerSecond;
+            }
+
+            /**
+             * Number of requests a client may send at once, after being idle.
+             */
+            public int getBurst() {
+                return burst;
+            }
+
+            public void setBurst(int burst) {
+                this.burst = burst;
+            }
+        }
+
+        public static class Cluster {
+
+            private String provider = "org.ehcache.jsr107.EhcacheCachingProvider";
+
+            private String uri;
+
+            public String getProvider() {
+                return provider;
+            }
+
+            public void setProvider(String provider) {
+                this.provider = provider;
+            }
+
+            /**
+             * The configuration of the JCache cache manager shared by the instances (e.g. a clustered Ehcache
+             * configuration), so that a client has the same limits whichever instance it calls: when not set, each
+             * instance limits the requests it receives on its own.
+             */
+            public String getUri() {
+                return uri;
+            }
+
+            public void setUri(String uri) {
+                this.uri = uri;
+            }
+        }
+    }
 }
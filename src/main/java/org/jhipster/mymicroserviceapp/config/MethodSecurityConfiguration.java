@@ -0,0 +1,134 @@
+package org.jhipster.mymicroserviceapp.config;
+
+import org.jhipster.mymicroserviceapp.MymicroserviceappApp;
+import org.jhipster.mymicroserviceapp.security.CachingPreInvocationAdvice;
+import org.jhipster.mymicroserviceapp.security.ExpressionAttributeFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.security.access.AccessDecisionManager;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.method.MethodSecurityMetadataSource;
+import org.springframework.security.access.prepost.PreInvocationAttribute;
+import org.springframework.security.access.prepost.PreInvocationAuthorizationAdviceVoter;
+import org.springframework.security.access.prepost.PrePostAnnotationSecurityMetadataSource;
+import org.springframework.security.access.vote.AffirmativeBased;
+import org.springframework.security.access.vote.AuthenticatedVoter;
+import org.springframework.security.access.vote.RoleVoter;
+import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
+import org.springframework.security.config.annotation.method.configuration.GlobalMethodSecurityConfiguration;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Method security: the {@code @PreAuthorize} and {@code @Secured} annotations.
+ *
+ * <p>
+ *     The SpEL expressions are parsed at startup, for all the methods of the application beans. The expressions
+ *     which only depend on the authorities of the user are compiled to bytecode at startup when they can be, and
+ *     their decisions are cached by the {@link CachingPreInvocationAdvice}; the other ones are compiled once they
+ *     have been interpreted a few times (SpEL "mixed" mode).
+ * </p>
+ */
+@Configuration
+@EnableGlobalMethodSecurity(prePostEnabled = true, securedEnabled = true)
+public class MethodSecurityConfiguration extends GlobalMethodSecurityConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(MethodSecurityConfiguration.class);
+
+    @Bean
+    public CachingPreInvocationAdvice preInvocationAdvice() {
+        return new CachingPreInvocationAdvice();
+    }
+
+    @Override
+    protected MethodSecurityExpressionHandler createExpressionHandler() {
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionHandler.setExpressionParser(new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader())));
+        return expressionHandler;
+    }
+
+    /**
+     * The {@code @PreAuthorize} attributes exposing their parsed expressions to the {@link CachingPreInvocationAdvice}.
+     * The custom metadata source is asked first, so it replaces the pre/post annotation source of Spring Security.
+     */
+    @Override
+    protected MethodSecurityMetadataSource customMethodSecurityMetadataSource() {
+        return new PrePostAnnotationSecurityMetadataSource(new ExpressionAttributeFactory(getExpressionHandler()));
+    }
+
+    /**
+     * The voters of {@link GlobalMethodSecurityConfiguration}, with the caching advice for the pre-invocation
+     * expressions.
+     */
+    @Override
+    protected AccessDecisionManager accessDecisionManager() {
+        CachingPreInvocationAdvice preInvocationAdvice = preInvocationAdvice();
+        preInvocationAdvice.setExpressionHandler(getExpressionHandler());
+        List<AccessDecisionVoter<?>> decisionVoters = new ArrayList<>();
+        decisionVoters.add(new PreInvocationAuthorizationAdviceVoter(preInvocationAdvice));
+        decisionVoters.add(new RoleVoter());
+        decisionVoters.add(new AuthenticatedVoter());
+        return new AffirmativeBased(decisionVoters);
+    }
+
+    /**
+     * Parse the security expressions of the application beans, and compile the ones which only depend on the
+     * authorities, so that the first calls don't pay for it.
+     */
+    @EventListener
+    public void parseExpressions(ContextRefreshedEvent event) {
+        ApplicationContext context = event.getApplicationContext();
+        String basePackage = MymicroserviceappApp.class.getPackage().getName();
+        CachingPreInvocationAdvice preInvocationAdvice = preInvocationAdvice();
+        AtomicInteger secured = new AtomicInteger();
+        AtomicInteger compiled = new AtomicInteger();
+        for (String beanName : context.getBeanDefinitionNames()) {
+            Class<?> type = context.getType(beanName);
+            if (type == null) {
+                continue;
+            }
+            Class<?> userClass = ClassUtils.getUserClass(type);
+            if (!userClass.getName().startsWith(basePackage)) {
+                continue;
+            }
+            ReflectionUtils.doWithMethods(userClass, method -> {
+                Method mostSpecificMethod = AopUtils.getMostSpecificMethod(method, userClass);
+                Collection<ConfigAttribute> attributes =
+                    methodSecurityMetadataSource().getAttributes(mostSpecificMethod, userClass);
+                if (!attributes.isEmpty()) {
+                    secured.incrementAndGet();
+                }
+                for (ConfigAttribute attribute : attributes) {
+                    if (attribute instanceof PreInvocationAttribute && preInvocationAdvice.compile(
+                        (PreInvocationAttribute) attribute, new SimpleMethodInvocation(null, mostSpecificMethod))) {
+                        compiled.incrementAndGet();
+                    }
+                }
+            }, method -> Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class);
+        }
+        log.debug("Parsed the security expressions of {} methods, and compiled {} of them", secured.get(),
+            compiled.get());
+    }
+}
@@ -1,7 +1,10 @@
 package org.jhipster.mymicroserviceapp.config;
 
-import org.jhipster.mymicroserviceapp.config.jcache.JCacheGaugeSet;
+import org.jhipster.mymicroserviceapp.cache.BookNegativeCache;
 import org.jhipster.mymicroserviceapp.config.metrics.SpectatorLogMetricWriter;
+import org.jhipster.mymicroserviceapp.security.CachingPreInvocationAdvice;
+import org.jhipster.mymicroserviceapp.security.jwt.VerifiedTokenCache;
+import org.jhipster.mymicroserviceapp.service.search.BookSearchCache;
 import com.netflix.spectator.api.Registry;
 import org.springframework.boot.actuate.autoconfigure.ExportMetricReader;
 import org.springframework.boot.actuate.autoconfigure.ExportMetricWriter;
@@ -47,7 +50,14 @@ public class MetricsConfiguration extends MetricsConfigurerAdapter {
     private static final String PROP_METRIC_REG_JVM_FILES = "jvm.files";
     private static final String PROP_METRIC_REG_JVM_BUFFERS = "jvm.buffers";
 
-    private static final String PROP_METRIC_REG_JCACHE_STATISTICS = "jcache.statistics";
+    private static final String PROP_METRIC_REG_SEARCH_CACHE = "search.cache";
+
+    private static final String PROP_METRIC_REG_NEGATIVE_CACHE = "book.negative-cache";
+
+    private static final String PROP_METRIC_REG_VERIFIED_TOKEN_CACHE = "security.jwt.verified-token-cache";
+
+    private static final String PROP_METRIC_REG_METHOD_SECURITY = "security.method";
+
     private final Logger log = LoggerFactory.getLogger(MetricsConfiguration.class);
 
     private MetricRegistry metricRegistry = new MetricRegistry();
@@ -60,6 +70,18 @@ public class MetricsConfiguration extends MetricsConfigurerAdapter {
     @Autowired(required = false)
     private HikariDataSource hikariDataSource;
 
+    @Inject
+    private BookSearchCache bookSearchCache;
+
+    @Inject
+    private BookNegativeCache bookNegativeCache;
+
+    @Inject
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Inject
+    private CachingPreInvocationAdvice preInvocationAdvice;
+
     @Override
     @Bean
     public MetricRegistry getMetricRegistry() {
@@ -81,7 +103,10 @@ public class MetricsConfiguration extends MetricsConfigurerAdapter {
         metricRegistry.register(PROP_METRIC_REG_JVM_FILES, new FileDescriptorRatioGauge());
         metricRegistry.register(PROP_METRIC_REG_JVM_BUFFERS, new BufferPoolMetricSet(ManagementFactory.getPlatformMBeanServer()));
 
-        metricRegistry.register(PROP_METRIC_REG_JCACHE_STATISTICS, new JCacheGaugeSet());
+        metricRegistry.register(PROP_METRIC_REG_SEARCH_CACHE, bookSearchCache);
+        metricRegistry.register(PROP_METRIC_REG_NEGATIVE_CACHE, bookNegativeCache);
+        metricRegistry.register(PROP_METRIC_REG_VERIFIED_TOKEN_CACHE, verifiedTokenCache);
+        metricRegistry.register(PROP_METRIC_REG_METHOD_SECURITY, preInvocationAdvice);
         if (hikariDataSource != null) {
             log.debug("Monitoring the datasource");
             hikariDataSource.setMetricRegistry(metricRegistry);
@@ -1,33 +1,51 @@
 package org.jhipster.mymicroserviceapp.config;
 
+import org.jhipster.mymicroserviceapp.ratelimit.RateLimiter;
 import org.jhipster.mymicroserviceapp.security.AuthoritiesConstants;
+import org.jhipster.mymicroserviceapp.security.BypassRequestMatcher;
 import org.jhipster.mymicroserviceapp.security.jwt.JWTConfigurer;
 import org.jhipster.mymicroserviceapp.security.jwt.TokenProvider;
+import org.jhipster.mymicroserviceapp.web.filter.RateLimitingFilter;
 
+import com.codahale.metrics.MetricRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
-import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.data.repository.query.SecurityEvaluationContextExtension;
+import org.springframework.security.web.access.intercept.FilterSecurityInterceptor;
 
 import javax.inject.Inject;
 
 @Configuration
 @EnableWebSecurity
-@EnableGlobalMethodSecurity(prePostEnabled = true, securedEnabled = true)
 public class MicroserviceSecurityConfiguration extends WebSecurityConfigurerAdapter {
 
     @Inject
     private TokenProvider tokenProvider;
 
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    @Inject
+    private RateLimiter rateLimiter;
+
+    /**
+     * The ignored requests skip all the security filters, including the JWTFilter. The probes and metrics scrapes
+     * listed in "jhipster.security.bypassPaths" are ignored as well, so that they don't pay for the filter chain.
+     */
     @Override
     public void configure(WebSecurity web) throws Exception {
         web.ignoring()
+            .requestMatchers(new BypassRequestMatcher(jHipsterProperties.getSecurity().getBypassPaths(),
+                metricRegistry.meter(MetricRegistry.name(BypassRequestMatcher.class, "bypassed"))))
             .antMatchers(HttpMethod.OPTIONS, "/**")
             .antMatchers("/app/**/*.{js,html}")
             .antMatchers("/bower_components/**")
@@ -56,6 +74,10 @@ public class MicroserviceSecurityConfiguration extends WebSecurityConfigurerAdap
             .antMatchers("/swagger-resources/configuration/ui").permitAll()
         .and()
             .apply(securityConfigurerAdapter());
+        if (jHipsterProperties.getRateLimiting().isEnabled()) {
+            // after the JWTFilter, so that the clients are limited by the subject of their token
+            http.addFilterBefore(new RateLimitingFilter(rateLimiter), FilterSecurityInterceptor.class);
+        }
     }
 
     private JWTConfigurer securityConfigurerAdapter() {
@@ -0,0 +1,60 @@
+package org.jhipster.mymicroserviceapp.config;
+
+import org.jhipster.mymicroserviceapp.ratelimit.JCacheRateLimitStore;
+import org.jhipster.mymicroserviceapp.ratelimit.LocalRateLimitStore;
+import org.jhipster.mymicroserviceapp.ratelimit.RateLimitStore;
+import org.jhipster.mymicroserviceapp.ratelimit.RateLimiter;
+
+import com.codahale.metrics.MetricRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class RateLimitingConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(RateLimitingConfiguration.class);
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        return new RateLimiter(jHipsterProperties.getRateLimiting().getGroups(), rateLimitStore(),
+            () -> TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()), metricRegistry);
+    }
+
+    /**
+     * The buckets of the clients: shared by the instances when "jhipster.rateLimiting.cluster.uri" is set, or else
+     * held in the memory of this instance.
+     */
+    @Bean
+    public RateLimitStore rateLimitStore() {
+        JHipsterProperties.RateLimiting rateLimiting = jHipsterProperties.getRateLimiting();
+        long retention = RateLimiter.retentionInMicros(rateLimiting.getGroups());
+        JHipsterProperties.RateLimiting.Cluster cluster = rateLimiting.getCluster();
+        if (cluster.getUri() == null) {
+            log.debug("Rate limiting the requests of each instance on its own");
+            return new LocalRateLimitStore(rateLimiting.getMaximumKeys(), retention);
+        }
+        log.debug("Rate limiting the requests of all the instances with the cache configured by {}", cluster.getUri());
+        CachingProvider provider = Caching.getCachingProvider(cluster.getProvider());
+        try {
+            return new JCacheRateLimitStore(provider.getCacheManager(
+                new DefaultResourceLoader().getResource(cluster.getUri()).getURI(), getClass().getClassLoader()), retention);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load the rate limits cache configuration " + cluster.getUri(), e);
+        }
+    }
+}
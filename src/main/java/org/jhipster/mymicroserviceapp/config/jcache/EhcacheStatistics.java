@@ -0,0 +1,167 @@
+package org.jhipster.mymicroserviceapp.config.jcache;
+
+import org.terracotta.context.ContextManager;
+import org.terracotta.context.TreeNode;
+import org.terracotta.context.query.QueryBuilder;
+import org.terracotta.statistics.OperationStatistic;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * The operation statistics that Ehcache keeps for a cache and its tiers, read directly instead of through the
+ * CacheStatistics MXBean.
+ *
+ * <p>
+ *     The outcomes are classified by name ("HIT..." and "MISS..." for the gets, anything but "FAILURE" and "NOOP" for
+ *     the writes), as they vary between the Ehcache versions. The evictions are the ones of the lowest tier, where an
+ *     evicted entry leaves the cache: an eviction from the heap tier only moves the entry to the off-heap or disk tier.
+ * </p>
+ */
+final class EhcacheStatistics {
+
+    private static final String[] TIERS_FROM_LOWEST = {"disk", "offheap", "onheap"};
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    private final Counter puts;
+
+    private final Counter removals;
+
+    private final Counter evictions;
+
+    private EhcacheStatistics(Map<String, OperationStatistic<?>> operations, OperationStatistic<?> eviction) {
+        this.hits = new Counter(operations.get("get"), name -> name.startsWith("HIT"));
+        this.misses = new Counter(operations.get("get"), name -> name.startsWith("MISS"));
+        this.puts = new Counter(operations.get("put"), EhcacheStatistics::isSuccess);
+        this.removals = new Counter(operations.get("remove"), EhcacheStatistics::isSuccess);
+        this.evictions = new Counter(eviction, EhcacheStatistics::isSuccess);
+    }
+
+    /**
+     * @param ehcache the Ehcache cache, unwrapped from its JCache cache
+     * @return the statistics of the cache, or null if Ehcache doesn't keep them
+     */
+    static EhcacheStatistics of(org.ehcache.Cache<?, ?> ehcache) {
+        TreeNode root = ContextManager.nodeFor(ehcache);
+        if (root == null) {
+            return null;
+        }
+        Map<String, OperationStatistic<?>> operations = new HashMap<>();
+        for (TreeNode node : query(root, QueryBuilder.queryBuilder().children())) {
+            OperationStatistic<?> statistic = statistic(node);
+            if (statistic != null) {
+                operations.put(String.valueOf(node.getContext().attributes().get("name")), statistic);
+            }
+        }
+        if (!operations.containsKey("get")) {
+            return null;
+        }
+        return new EhcacheStatistics(operations, lowestTierEviction(root));
+    }
+
+    long getHits() {
+        return hits.count();
+    }
+
+    long getMisses() {
+        return misses.count();
+    }
+
+    long getGets() {
+        return getHits() + getMisses();
+    }
+
+    float getHitRatio() {
+        long gets = getGets();
+        return gets == 0 ? 0 : (float) getHits() / gets;
+    }
+
+    long getPuts() {
+        return puts.count();
+    }
+
+    long getRemovals() {
+        return removals.count();
+    }
+
+    long getEvictions() {
+        return evictions.count();
+    }
+
+    private static OperationStatistic<?> lowestTierEviction(TreeNode root) {
+        Map<String, OperationStatistic<?>> evictions = new HashMap<>();
+        OperationStatistic<?> any = null;
+        for (TreeNode node : query(root, QueryBuilder.queryBuilder().descendants())) {
+            OperationStatistic<?> statistic = statistic(node);
+            Map<String, Object> attributes = node.getContext().attributes();
+            if (statistic == null || !"eviction".equals(attributes.get("name"))) {
+                continue;
+            }
+            any = statistic;
+            Object tags = attributes.get("tags");
+            if (tags instanceof Collection) {
+                for (Object tag : (Collection<?>) tags) {
+                    evictions.put(String.valueOf(tag), statistic);
+                }
+            }
+        }
+        for (String tier : TIERS_FROM_LOWEST) {
+            if (evictions.containsKey(tier)) {
+                return evictions.get(tier);
+            }
+        }
+        return any;
+    }
+
+    private static Set<TreeNode> query(TreeNode root, QueryBuilder queryBuilder) {
+        return queryBuilder.build().execute(Collections.singleton(root));
+    }
+
+    private static OperationStatistic<?> statistic(TreeNode node) {
+        Object statistic = node.getContext().attributes().get("this");
+        return statistic instanceof OperationStatistic ? (OperationStatistic<?>) statistic : null;
+    }
+
+    private static boolean isSuccess(String outcome) {
+        return !outcome.equals("FAILURE") && !outcome.equals("NOOP");
+    }
+
+    /**
+     * Sum of the counts of some outcomes of an operation, resolved once.
+     */
+    private static final class Counter {
+
+        private final OperationStatistic<?> statistic;
+
+        private final Set outcomes;
+
+        @SuppressWarnings("unchecked")
+        private Counter(OperationStatistic<?> statistic, Predicate<String> outcome) {
+            this.statistic = statistic;
+            if (statistic == null) {
+                this.outcomes = Collections.emptySet();
+                return;
+            }
+            Set selected = EnumSet.noneOf(statistic.type());
+            for (Enum<?> constant : statistic.type().getEnumConstants()) {
+                if (outcome.test(constant.name())) {
+                    selected.add(constant);
+                }
+            }
+            this.outcomes = selected;
+        }
+
+        @SuppressWarnings("unchecked")
+        private long count() {
+            return statistic == null || outcomes.isEmpty() ? 0 : ((OperationStatistic) statistic).sum(outcomes);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package org.jhipster.mymicroserviceapp.config.jcache;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.inject.Inject;
+import javax.management.JMX;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Registers the statistics of every cache of the JCache cache manager as gauges, under "jcache.statistics".
+ *
+ * <p>
+ *     The statistics of each cache are read from its provider: the stats of Caffeine when it records them, and the
+ *     operation statistics of Ehcache. The CacheStatistics MXBean of the cache is only the last fallback, for the
+ *     other providers, as each read of its proxy goes through the MBean server. The caches are scanned again every
+ *     minute, so that the caches created after startup are registered, and the metrics of the destroyed ones are
+ *     removed. The "-max" gauges are the configured sizes of the tiers, only registered for the tiers that are
+ *     configured.
+ * </p>
+ */
+@Component
+public class JCacheStatisticsCollector {
+
+    private static final String PREFIX = "jcache.statistics";
+
+    private static final int SAMPLE_SIZE = 100;
+
+    private final Logger log = LoggerFactory.getLogger(JCacheStatisticsCollector.class);
+
+    private final Map<String, LongSupplier> registered = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> entries = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> estimatedBytes = new ConcurrentHashMap<>();
+
+    @Inject
+    private CacheManager cacheManager;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @PostConstruct
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public synchronized void collect() {
+        Set<String> names = new HashSet<>();
+        for (String cacheName : cacheManager.getCacheNames()) {
+            names.add(cacheName);
+            if (!registered.containsKey(cacheName)) {
+                register(cacheName);
+            }
+            measure(cacheName);
+        }
+        for (String cacheName : registered.keySet()) {
+            if (!names.contains(cacheName)) {
+                log.debug("Removing the statistics of the destroyed cache {}", cacheName);
+                metricRegistry.removeMatching((metricName, metric) -> metricName.startsWith(name(PREFIX, cacheName) + "."));
+                registered.remove(cacheName);
+                entries.remove(cacheName);
+                estimatedBytes.remove(cacheName);
+            }
+        }
+    }
+
+    /**
+     * @return the estimated number of entries of the caches, as of the last scan
+     */
+    public Map<String, Long> getEntries() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * @return the estimated heap used by the entries of the caches in bytes, as of the last scan
+     */
+    public Map<String, Long> getEstimatedBytes() {
+        return Collections.unmodifiableMap(estimatedBytes);
+    }
+
+    private void register(String cacheName) {
+        Cache<?, ?> cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        cacheManager.enableStatistics(cacheName, true);
+        LongSupplier count = registerCaffeineStatistics(cacheName, cache);
+        if (count == null) {
+            count = registerEhcacheStatistics(cacheName, cache);
+        }
+        if (count == null) {
+            count = registerMXBeanStatistics(cacheName, cache);
+        }
+        if (count == null) {
+            log.warn("No statistics available for the cache {}", cacheName);
+            return;
+        }
+        com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine = unwrapCaffeine(cache);
+        if (caffeine != null) {
+            registerGauge(cacheName, "heap-entries", caffeine::estimatedSize);
+            count = caffeine::estimatedSize;
+        }
+        JHipsterProperties.Cache.Ehcache.Region region = jHipsterProperties.getCache().getEhcache().getRegion(cacheName);
+        registerGauge(cacheName, "entries", () -> entries.getOrDefault(cacheName, 0L));
+        registerGauge(cacheName, "estimated-bytes", () -> estimatedBytes.getOrDefault(cacheName, 0L));
+        if (region.getHeapMb() != null) {
+            registerGauge(cacheName, "heap-mb-max", region::getHeapMb);
+        } else if (region.getHeapEntries() != null) {
+            registerGauge(cacheName, "heap-entries-max", region::getHeapEntries);
+        }
+        if (region.getOffHeapMb() != null && region.getOffHeapMb() > 0) {
+            registerGauge(cacheName, "off-heap-mb-max", region::getOffHeapMb);
+        }
+        if (region.getDiskMb() != null && region.getDiskMb() > 0) {
+            registerGauge(cacheName, "disk-mb-max", region::getDiskMb);
+        }
+        registered.put(cacheName, count);
+    }
+
+    /**
+     * Register the statistics that Caffeine records itself, which have no puts nor removals.
+     *
+     * @return the estimated number of entries of the cache, or null if the cache is not a Caffeine cache recording
+     * its stats
+     */
+    private LongSupplier registerCaffeineStatistics(String cacheName, Cache<?, ?> cache) {
+        com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine = unwrapCaffeine(cache);
+        if (caffeine == null || !caffeine.policy().isRecordingStats()) {
+            return null;
+        }
+        log.debug("Registering the Caffeine statistics of the cache {}", cacheName);
+        registerGauge(cacheName, "hit-ratio", () -> caffeine.stats().hitRate());
+        registerGauge(cacheName, "hits", () -> caffeine.stats().hitCount());
+        registerGauge(cacheName, "misses", () -> caffeine.stats().missCount());
+        registerGauge(cacheName, "gets", () -> caffeine.stats().requestCount());
+        registerGauge(cacheName, "evictions", () -> caffeine.stats().evictionCount());
+        return caffeine::estimatedSize;
+    }
+
+    /**
+     * Register the statistics that Ehcache keeps for the cache and its tiers.
+     *
+     * @return the puts less the removals and evictions of the cache, or null if the cache is not an Ehcache cache
+     */
+    private LongSupplier registerEhcacheStatistics(String cacheName, Cache<?, ?> cache) {
+        EhcacheStatistics statistics;
+        try {
+            statistics = EhcacheStatistics.of(cache.unwrap(org.ehcache.Cache.class));
+        } catch (IllegalArgumentException | NoClassDefFoundError e) {
+            return null;
+        }
+        if (statistics == null) {
+            return null;
+        }
+        log.debug("Registering the Ehcache statistics of the cache {}", cacheName);
+        registerGauge(cacheName, "hit-ratio", statistics::getHitRatio);
+        registerGauge(cacheName, "hits", statistics::getHits);
+        registerGauge(cacheName, "misses", statistics::getMisses);
+        registerGauge(cacheName, "gets", statistics::getGets);
+        registerGauge(cacheName, "puts", statistics::getPuts);
+        registerGauge(cacheName, "removals", statistics::getRemovals);
+        registerGauge(cacheName, "evictions", statistics::getEvictions);
+        return () -> statistics.getPuts() - statistics.getRemovals() - statistics.getEvictions();
+    }
+
+    /**
+     * Register the statistics of the CacheStatistics MXBean of the cache, for the providers whose statistics are not
+     * read directly. Each read of a gauge goes through the MBean server.
+     *
+     * @return the puts less the removals and evictions of the cache, or null if the provider has not registered the
+     * MXBean
+     */
+    private LongSupplier registerMXBeanStatistics(String cacheName, Cache<?, ?> cache) {
+        CacheStatisticsMXBean statistics = resolveStatistics(cache);
+        if (statistics == null) {
+            return null;
+        }
+        log.debug("Registering the JCache statistics MXBean of the cache {}", cacheName);
+        registerGauge(cacheName, "hit-ratio", () -> statistics.getCacheHitPercentage() / 100f);
+        registerGauge(cacheName, "hits", statistics::getCacheHits);
+        registerGauge(cacheName, "misses", statistics::getCacheMisses);
+        registerGauge(cacheName, "gets", statistics::getCacheGets);
+        registerGauge(cacheName, "puts", statistics::getCachePuts);
+        registerGauge(cacheName, "removals", statistics::getCacheRemovals);
+        registerGauge(cacheName, "evictions", statistics::getCacheEvictions);
+        registerGauge(cacheName, "average-get-time", statistics::getAverageGetTime);
+        registerGauge(cacheName, "average-put-time", statistics::getAveragePutTime);
+        return () -> statistics.getCachePuts() - statistics.getCacheRemovals() - statistics.getCacheEvictions();
+    }
+
+    /**
+     * Estimate the number of entries of a cache and their size, without walking the whole cache (nor its off-heap
+     * and disk tiers).
+     *
+     * <p>The number of entries is the estimated size of Caffeine, or for the other providers the puts less the
+     * removals and evictions of their statistics, which ignore the expired entries that have not been evicted
+     * yet. The size is extrapolated from the first entries of the native cache, which are spread over the keys as
+     * the caches iterate in hash order; the native cache is read as iterating the JCache cache counts as reads in its
+     * statistics.</p>
+     */
+    private void measure(String cacheName) {
+        Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+        LongSupplier count = registered.get(cacheName);
+        if (cache == null || count == null) {
+            return;
+        }
+        Iterator<? extends Map.Entry<?, ?>> iterator = entryIterator(cache);
+        int sampled = 0;
+        long sampledBytes = 0;
+        while (sampled < SAMPLE_SIZE && iterator.hasNext()) {
+            Map.Entry<?, ?> entry = iterator.next();
+            sampledBytes += ObjectSizeEstimator.estimate(entry.getKey()) + ObjectSizeEstimator.estimate(entry.getValue());
+            sampled++;
+        }
+        long total;
+        if (!iterator.hasNext()) {
+            total = sampled;
+        } else {
+            total = Math.max(count.getAsLong(), sampled);
+        }
+        entries.put(cacheName, total);
+        estimatedBytes.put(cacheName, sampled == 0 ? 0 : sampledBytes * total / sampled);
+    }
+
+    private Iterator<? extends Map.Entry<?, ?>> entryIterator(Cache<Object, Object> cache) {
+        com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine = unwrapCaffeine(cache);
+        if (caffeine != null) {
+            return caffeine.asMap().entrySet().iterator();
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            org.ehcache.Cache<Object, Object> ehcache = cache.unwrap(org.ehcache.Cache.class);
+            return map(ehcache.iterator(), entry -> new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+        } catch (IllegalArgumentException e) {
+            return map(cache.iterator(), entry -> new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private static <T> Iterator<Map.Entry<?, ?>> map(Iterator<? extends T> iterator,
+                                                     Function<T, Map.Entry<?, ?>> mapper) {
+        return new Iterator<Map.Entry<?, ?>>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Map.Entry<?, ?> next() {
+                return mapper.apply(iterator.next());
+            }
+        };
+    }
+
+    private <T> void registerGauge(String cacheName, String statistic, Gauge<T> gauge) {
+        String metricName = name(PREFIX, cacheName, statistic);
+        metricRegistry.remove(metricName);
+        metricRegistry.register(metricName, gauge);
+    }
+
+    /**
+     * Proxy the CacheStatistics MXBean of a cache, which the provider registers when its statistics are enabled.
+     */
+    private CacheStatisticsMXBean resolveStatistics(Cache<?, ?> cache) {
+        try {
+            ObjectName objectName = new ObjectName("javax.cache:type=CacheStatistics" +
+                ",CacheManager=" + mbeanSafe(cacheManager.getURI().toString()) +
+                ",Cache=" + mbeanSafe(cache.getName()));
+            if (ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                return JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(), objectName,
+                    CacheStatisticsMXBean.class);
+            }
+        } catch (MalformedObjectNameException e) {
+            log.debug("Could not find the statistics MXBean of {}: {}", cache.getName(), e.getMessage());
+        }
+        return null;
+    }
+
+    private static String mbeanSafe(String value) {
+        return value.replaceAll("[,:=\n]", ".");
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<?, ?> unwrapCaffeine(Cache<?, ?> cache) {
+        try {
+            return cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
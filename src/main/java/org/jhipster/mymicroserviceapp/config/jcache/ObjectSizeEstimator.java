@@ -0,0 +1,157 @@
+package org.jhipster.mymicroserviceapp.config.jcache;
+
+import org.hibernate.cache.spi.entry.CacheEntry;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Rough estimation of the heap retained by the cached objects (64-bit JVM with compressed references).
+ *
+ * <p>
+ *     The Hibernate cache entries are measured from their disassembled state, and the other objects are walked
+ *     through their fields, up to a limited depth. The fields of each class are resolved once, so that weighing an
+ *     entry doesn't use reflection to list them. It is meant to be cheap enough to weigh each entry, not exact.
+ * </p>
+ */
+public final class ObjectSizeEstimator {
+
+    private static final int OBJECT_HEADER = 16;
+
+    private static final int REFERENCE = 4;
+
+    private static final int MAX_DEPTH = 4;
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<Layout>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return new Layout(type);
+        }
+    };
+
+    private ObjectSizeEstimator() {
+    }
+
+    public static long estimate(Object object) {
+        return estimate(object, Collections.newSetFromMap(new IdentityHashMap<>()), 0);
+    }
+
+    private static long estimate(Object object, Set<Object> visited, int depth) {
+        if (object == null || !visited.add(object)) {
+            return 0;
+        }
+        if (object instanceof String) {
+            return OBJECT_HEADER + 24 + 2L * ((String) object).length();
+        }
+        if (object instanceof Number || object instanceof Boolean || object instanceof Character ||
+            object instanceof Enum) {
+            return OBJECT_HEADER + 8;
+        }
+        if (object instanceof Temporal || object instanceof Date) {
+            return OBJECT_HEADER + 24;
+        }
+        if (object instanceof CacheEntry) {
+            return OBJECT_HEADER + 3 * REFERENCE + estimate(((CacheEntry) object).getDisassembledState(), visited, depth);
+        }
+        Class<?> type = object.getClass();
+        if (type.isArray()) {
+            int length = Array.getLength(object);
+            if (type.getComponentType().isPrimitive()) {
+                return OBJECT_HEADER + (long) length * primitiveSize(type.getComponentType());
+            }
+            long size = OBJECT_HEADER + (long) length * REFERENCE;
+            for (int i = 0; i < length; i++) {
+                size += estimate(Array.get(object, i), visited, depth + 1);
+            }
+            return size;
+        }
+        if (object instanceof Collection) {
+            long size = OBJECT_HEADER + 32;
+            for (Object element : (Collection<?>) object) {
+                size += 32 + estimate(element, visited, depth + 1);
+            }
+            return size;
+        }
+        if (object instanceof Map) {
+            long size = OBJECT_HEADER + 48;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                size += 32 + estimate(entry.getKey(), visited, depth + 1) + estimate(entry.getValue(), visited, depth + 1);
+            }
+            return size;
+        }
+        return estimateFields(object, visited, depth);
+    }
+
+    private static long estimateFields(Object object, Set<Object> visited, int depth) {
+        Layout layout = LAYOUTS.get(object.getClass());
+        long size = OBJECT_HEADER + layout.shallowSize;
+        if (depth < MAX_DEPTH) {
+            for (Field field : layout.references) {
+                try {
+                    size += estimate(field.get(object), visited, depth + 1);
+                } catch (IllegalAccessException e) {
+                    // cannot happen, the fields are accessible
+                }
+            }
+        }
+        return size;
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    /**
+     * The fields of a class: the size of its primitive fields and references, and its fields that can be followed.
+     */
+    private static final class Layout {
+
+        private final long shallowSize;
+
+        private final Field[] references;
+
+        private Layout(Class<?> type) {
+            long size = 0;
+            List<Field> followed = new ArrayList<>();
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if (field.getType().isPrimitive()) {
+                        size += primitiveSize(field.getType());
+                        continue;
+                    }
+                    size += REFERENCE;
+                    try {
+                        field.setAccessible(true);
+                        followed.add(field);
+                    } catch (RuntimeException e) {
+                        // not accessible: only the reference is counted
+                    }
+                }
+            }
+            this.shallowSize = size;
+            this.references = followed.toArray(new Field[followed.size()]);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.jhipster.mymicroserviceapp.config.jcache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+
+/**
+ * Weighs the entries of the Caffeine regions sized in bytes, with the {@link ObjectSizeEstimator}.
+ */
+public class ObjectSizeWeigher implements Weigher<Object, Object> {
+
+    @Override
+    public int weigh(Object key, Object value) {
+        return (int) Math.min(ObjectSizeEstimator.estimate(key) + ObjectSizeEstimator.estimate(value), Integer.MAX_VALUE);
+    }
+}
@@ -3,6 +3,8 @@ package org.jhipster.mymicroserviceapp.domain;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Mapping;
+import org.springframework.data.elasticsearch.annotations.Setting;
 
 import javax.persistence.*;
 import javax.validation.constraints.*;
@@ -17,6 +19,8 @@ import java.util.Objects;
 @Table(name = "book")
 @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Document(indexName = "book")
+@Setting(settingPath = "config/elasticsearch/book-settings.json")
+@Mapping(mappingPath = "config/elasticsearch/book-mapping.json")
 public class Book implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -35,6 +39,14 @@ public class Book implements Serializable {
     @Column(name = "author")
     private String author;
 
+    /**
+     * Version incremented by Hibernate on every write, copied into the search index so that search hits can be
+     * checked against the database without reloading the entity.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -82,6 +94,14 @@ public class Book implements Serializable {
         this.author = author;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -109,6 +129,7 @@ public class Book implements Serializable {
             ", name='" + name + "'" +
             ", publishDate='" + publishDate + "'" +
             ", author='" + author + "'" +
+            ", version='" + version + "'" +
             '}';
     }
 }
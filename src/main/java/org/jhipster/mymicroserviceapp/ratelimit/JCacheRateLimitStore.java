@@ -0,0 +1,63 @@
+package org.jhipster.mymicroserviceapp.ratelimit;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.AccessedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits shared by the instances, in a cache of a JCache cache manager such as a clustered Ehcache configured
+ * with a Terracotta server, so that a client has the same limits whichever instance it calls.
+ *
+ * <p>
+ *     The theoretical arrival times are updated with the atomic putIfAbsent and replace operations of the cache, and
+ *     are based on the wall clock, which must be synchronized between the instances. The "rate-limits" cache is
+ *     created with the default configuration of the provider when the cache manager doesn't configure it.
+ * </p>
+ */
+public class JCacheRateLimitStore implements RateLimitStore {
+
+    public static final String CACHE_NAME = "rate-limits";
+
+    private final CacheManager cacheManager;
+
+    private final Cache<String, Long> arrivals;
+
+    /**
+     * @param cacheManager the cache manager shared by the instances
+     * @param retentionInMicros how long an idle client is kept
+     */
+    public JCacheRateLimitStore(CacheManager cacheManager, long retentionInMicros) {
+        this.cacheManager = cacheManager;
+        Cache<String, Long> cache = cacheManager.getCache(CACHE_NAME, String.class, Long.class);
+        if (cache == null) {
+            cache = cacheManager.createCache(CACHE_NAME, new MutableConfiguration<String, Long>()
+                .setTypes(String.class, Long.class)
+                .setExpiryPolicyFactory(AccessedExpiryPolicy.factoryOf(new Duration(TimeUnit.MILLISECONDS,
+                    Math.max(1, TimeUnit.MICROSECONDS.toMillis(retentionInMicros))))));
+        }
+        this.arrivals = cache;
+    }
+
+    @Override
+    public long acquire(String key, long emissionIntervalInMicros, long toleranceInMicros, long nowInMicros) {
+        while (true) {
+            Long current = arrivals.get(key);
+            long next = RateLimitStore.nextArrival(current == null ? Long.MIN_VALUE : current,
+                emissionIntervalInMicros, toleranceInMicros, nowInMicros);
+            if (next < 0) {
+                return RateLimitStore.waitTime(current, toleranceInMicros, nowInMicros);
+            }
+            boolean updated = current == null ? arrivals.putIfAbsent(key, next) : arrivals.replace(key, current, next);
+            if (updated) {
+                return 0;
+            }
+        }
+    }
+
+    public void close() {
+        cacheManager.close();
+    }
+}
@@ -0,0 +1,49 @@
+package org.jhipster.mymicroserviceapp.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Rate limits held in the memory of this instance, one atomic counter per client and endpoint group.
+ *
+ * <p>
+ *     The clients which have been idle for longer than the retention are forgotten: the retention covers the time
+ *     needed to refill the largest bucket, so a forgotten client starts again with the full bucket it would have had.
+ * </p>
+ */
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private static final Function<String, AtomicLong> NEW_ARRIVAL = key -> new AtomicLong(Long.MIN_VALUE);
+
+    private final Cache<String, AtomicLong> arrivals;
+
+    /**
+     * @param maximumKeys the number of clients and groups kept
+     * @param retentionInMicros how long an idle client is kept
+     */
+    public LocalRateLimitStore(long maximumKeys, long retentionInMicros) {
+        this.arrivals = Caffeine.newBuilder()
+            .maximumSize(maximumKeys)
+            .expireAfterAccess(retentionInMicros, TimeUnit.MICROSECONDS)
+            .build();
+    }
+
+    @Override
+    public long acquire(String key, long emissionIntervalInMicros, long toleranceInMicros, long nowInMicros) {
+        AtomicLong arrival = arrivals.get(key, NEW_ARRIVAL);
+        while (true) {
+            long current = arrival.get();
+            long next = RateLimitStore.nextArrival(current, emissionIntervalInMicros, toleranceInMicros, nowInMicros);
+            if (next < 0) {
+                return RateLimitStore.waitTime(current, toleranceInMicros, nowInMicros);
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.jhipster.mymicroserviceapp.ratelimit;
+
+/**
+ * Holds the state of the rate limits, with the generic cell rate algorithm (GCRA): the only state of a client is its
+ * theoretical arrival time, the time at which its bucket would be full again.
+ *
+ * <p>
+ *     A request is allowed when the theoretical arrival time of its client is no further than the burst tolerance
+ *     from now, and pushes it one emission interval further. The state is updated with a compare-and-set, so that the
+ *     requests of a client never wait for a lock, and the requests of different clients never contend.
+ * </p>
+ */
+public interface RateLimitStore {
+
+    /**
+     * Take a request from the bucket of a client.
+     *
+     * @param key the client and endpoint group
+     * @param emissionIntervalInMicros the interval between two requests at the sustained rate
+     * @param toleranceInMicros how far ahead of now the theoretical arrival time may be, i.e. the burst less one
+     * request, times the emission interval
+     * @param nowInMicros the current time
+     * @return 0 if the request is allowed, or else the time to wait before it would be, in microseconds
+     */
+    long acquire(String key, long emissionIntervalInMicros, long toleranceInMicros, long nowInMicros);
+
+    /**
+     * The new theoretical arrival time of a client, or -1 when the request is rejected.
+     */
+    static long nextArrival(long arrival, long emissionIntervalInMicros, long toleranceInMicros, long nowInMicros) {
+        long start = Math.max(arrival, nowInMicros);
+        if (start - nowInMicros > toleranceInMicros) {
+            return -1;
+        }
+        return start + emissionIntervalInMicros;
+    }
+
+    /**
+     * The time to wait before a request of a client would be allowed.
+     */
+    static long waitTime(long arrival, long toleranceInMicros, long nowInMicros) {
+        return Math.max(1, arrival - toleranceInMicros - nowInMicros);
+    }
+}
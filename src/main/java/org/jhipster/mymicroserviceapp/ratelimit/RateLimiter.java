@@ -0,0 +1,131 @@
+package org.jhipster.mymicroserviceapp.ratelimit;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the requests of each client to the endpoint groups configured in "jhipster.rateLimiting.groups", e.g. the
+ * searches, which are much more expensive than the other requests, and the rest of the API.
+ *
+ * <p>
+ *     Each client has a bucket per group, which holds "burst" requests and is refilled at "requestsPerSecond": the
+ *     buckets are kept by a {@link RateLimitStore}, either in memory or shared by the instances.
+ * </p>
+ */
+public class RateLimiter {
+
+    private final List<Limit> limits = new ArrayList<>();
+
+    private final RateLimitStore store;
+
+    private final LongSupplier clockInMicros;
+
+    /**
+     * @param groups the endpoint groups and their limits
+     * @param store the store of the buckets
+     * @param clockInMicros the current time, in microseconds
+     * @param metricRegistry the registry of the meters counting the rejected requests of each group
+     */
+    public RateLimiter(List<JHipsterProperties.RateLimiting.Group> groups, RateLimitStore store,
+                       LongSupplier clockInMicros, MetricRegistry metricRegistry) {
+        for (JHipsterProperties.RateLimiting.Group group : groups) {
+            limits.add(new Limit(group, metricRegistry.meter(MetricRegistry.name(RateLimiter.class, group.getName(), "rejected"))));
+        }
+        this.store = store;
+        this.clockInMicros = clockInMicros;
+    }
+
+    /**
+     * @return the time needed to refill the largest bucket, after which an idle client can be forgotten
+     */
+    public static long retentionInMicros(List<JHipsterProperties.RateLimiting.Group> groups) {
+        long retention = TimeUnit.SECONDS.toMicros(1);
+        for (JHipsterProperties.RateLimiting.Group group : groups) {
+            retention = Math.max(retention, emissionIntervalInMicros(group) * (group.getBurst() + 1));
+        }
+        return retention;
+    }
+
+    /**
+     * @return the limit of the first group matching the request, or null if the request is not limited
+     */
+    public Limit resolve(HttpServletRequest request) {
+        for (Limit limit : limits) {
+            if (limit.matcher.matches(request)) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Take a request from the bucket of a client.
+     *
+     * @param limit the limit of the endpoint group of the request
+     * @param client the client, e.g. the subject of its token
+     * @return 0 if the request is allowed, or else the time to wait before it would be, in microseconds
+     */
+    public long acquire(Limit limit, String client) {
+        long wait = store.acquire(limit.name + ':' + client, limit.emissionIntervalInMicros, limit.toleranceInMicros,
+            clockInMicros.getAsLong());
+        if (wait > 0) {
+            limit.rejected.mark();
+        }
+        return wait;
+    }
+
+    private static long emissionIntervalInMicros(JHipsterProperties.RateLimiting.Group group) {
+        if (group.getRequestsPerSecond() <= 0 || group.getBurst() < 1) {
+            throw new IllegalArgumentException("The rate limit of " + group.getName() +
+                " needs a positive requestsPerSecond and burst");
+        }
+        return Math.max(1, (long) (TimeUnit.SECONDS.toMicros(1) / group.getRequestsPerSecond()));
+    }
+
+    /**
+     * The limit of an endpoint group.
+     */
+    public static final class Limit {
+
+        private final String name;
+
+        private final RequestMatcher matcher;
+
+        private final long emissionIntervalInMicros;
+
+        private final long toleranceInMicros;
+
+        private final Meter rejected;
+
+        private Limit(JHipsterProperties.RateLimiting.Group group, Meter rejected) {
+            List<RequestMatcher> matchers = new ArrayList<>();
+            for (String path : group.getPaths()) {
+                matchers.add(new AntPathRequestMatcher(path));
+            }
+            this.name = group.getName();
+            if (matchers.isEmpty()) {
+                this.matcher = request -> false;
+            } else {
+                this.matcher = new OrRequestMatcher(matchers);
+            }
+            this.emissionIntervalInMicros = emissionIntervalInMicros(group);
+            this.toleranceInMicros = emissionIntervalInMicros * (group.getBurst() - 1);
+            this.rejected = rejected;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Rate limiting of the API clients, per endpoint group.
+ */
+package org.jhipster.mymicroserviceapp.ratelimit;
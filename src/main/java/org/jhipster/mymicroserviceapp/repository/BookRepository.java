@@ -2,8 +2,13 @@ package org.jhipster.mymicroserviceapp.repository;
 
 import org.jhipster.mymicroserviceapp.domain.Book;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -12,4 +17,30 @@ import java.util.List;
 @SuppressWarnings("unused")
 public interface BookRepository extends JpaRepository<Book,Long> {
 
+    /**
+     * Query cache region of the {@link #findAll(Pageable)} queries, and of their count queries.
+     */
+    String FIND_ALL_QUERY_CACHE = "org.jhipster.mymicroserviceapp.repository.BookRepository.findAll";
+
+    /**
+     * Get a page of books. The results are cached when the query cache is enabled, until the book table is updated.
+     *
+     * @param pageable the pagination information
+     * @return the page of books
+     */
+    @Override
+    @QueryHints(value = {
+        @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+        @QueryHint(name = "org.hibernate.cacheRegion", value = FIND_ALL_QUERY_CACHE)
+    }, forCounting = true)
+    Page<Book> findAll(Pageable pageable);
+
+    /**
+     * Get the id and version of the given books, without loading the entities.
+     *
+     * @param ids the ids of the books
+     * @return the [id, version] pairs of the books that still exist
+     */
+    @Query("select book.id, book.version from Book book where book.id in :ids")
+    List<Object[]> findVersionsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,120 @@
+package org.jhipster.mymicroserviceapp.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interned authorities: maps the authorities claim of a token (e.g. "ROLE_ADMIN,ROLE_USER") to a shared immutable list
+ * of shared authorities, so that authenticating a request doesn't split the claim and allocate the authorities again.
+ *
+ * <p>
+ *     The combinations of the {@link AuthoritiesConstants} are resolved from a map built once. The other claims are
+ *     parsed on their first use and interned, up to {@value #MAX_INTERNED} claims and authorities: past that, they are
+ *     parsed each time.
+ * </p>
+ */
+public final class AuthorityRegistry {
+
+    private static final int MAX_INTERNED = 1024;
+
+    private static final String SEPARATOR = ",";
+
+    private static final ConcurrentMap<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private static final Map<String, List<GrantedAuthority>> KNOWN_CLAIMS;
+
+    private static final ConcurrentMap<String, List<GrantedAuthority>> INTERNED_CLAIMS = new ConcurrentHashMap<>();
+
+    static {
+        List<String> known = Arrays.asList(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER,
+            AuthoritiesConstants.ANONYMOUS);
+        known.forEach(name -> AUTHORITIES.put(name, new SimpleGrantedAuthority(name)));
+        Map<String, List<GrantedAuthority>> knownClaims = new HashMap<>();
+        knownClaims.put("", Collections.emptyList());
+        addPermutations(knownClaims, new ArrayList<>(), known);
+        KNOWN_CLAIMS = Collections.unmodifiableMap(knownClaims);
+    }
+
+    private AuthorityRegistry() {
+    }
+
+    /**
+     * @param name the name of an authority
+     * @return the shared authority with this name
+     */
+    public static GrantedAuthority authority(String name) {
+        GrantedAuthority authority = AUTHORITIES.get(name);
+        if (authority != null) {
+            return authority;
+        }
+        authority = new SimpleGrantedAuthority(name);
+        if (AUTHORITIES.size() < MAX_INTERNED) {
+            GrantedAuthority existing = AUTHORITIES.putIfAbsent(name, authority);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return authority;
+    }
+
+    /**
+     * @param claim the authorities separated by commas
+     * @return the shared immutable list of these authorities
+     */
+    public static List<GrantedAuthority> fromClaim(String claim) {
+        List<GrantedAuthority> authorities = KNOWN_CLAIMS.get(claim);
+        if (authorities != null) {
+            return authorities;
+        }
+        authorities = INTERNED_CLAIMS.get(claim);
+        if (authorities != null) {
+            return authorities;
+        }
+        authorities = parse(claim);
+        if (INTERNED_CLAIMS.size() < MAX_INTERNED) {
+            List<GrantedAuthority> existing = INTERNED_CLAIMS.putIfAbsent(claim, authorities);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return authorities;
+    }
+
+    private static List<GrantedAuthority> parse(String claim) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        for (String name : claim.split(SEPARATOR)) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                authorities.add(authority(trimmed));
+            }
+        }
+        return Collections.unmodifiableList(authorities);
+    }
+
+    /**
+     * Add the claims of all the ordered combinations of the given authorities, as the claim keeps the order of the
+     * authorities of the authenticated user.
+     */
+    private static void addPermutations(Map<String, List<GrantedAuthority>> claims, List<String> prefix,
+                                        List<String> remaining) {
+        for (String name : remaining) {
+            List<String> names = new ArrayList<>(prefix);
+            names.add(name);
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            names.forEach(authorityName -> authorities.add(AUTHORITIES.get(authorityName)));
+            claims.put(String.join(SEPARATOR, names), Collections.unmodifiableList(authorities));
+            List<String> rest = new ArrayList<>(remaining);
+            rest.remove(name);
+            addPermutations(claims, names, rest);
+        }
+    }
+}
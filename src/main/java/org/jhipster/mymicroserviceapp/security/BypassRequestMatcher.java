@@ -0,0 +1,49 @@
+package org.jhipster.mymicroserviceapp.security;
+
+import com.codahale.metrics.Meter;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Matches the GET and HEAD requests of the paths which skip the security filters (the probes and metrics scrapes),
+ * and counts them.
+ */
+public class BypassRequestMatcher implements RequestMatcher {
+
+    private final RequestMatcher delegate;
+
+    private final Meter bypassed;
+
+    /**
+     * @param paths the Ant patterns of the paths
+     * @param bypassed the meter counting the matched requests
+     */
+    public BypassRequestMatcher(List<String> paths, Meter bypassed) {
+        List<RequestMatcher> matchers = new ArrayList<>();
+        for (String path : paths) {
+            matchers.add(new AntPathRequestMatcher(path, HttpMethod.GET.name()));
+            matchers.add(new AntPathRequestMatcher(path, HttpMethod.HEAD.name()));
+        }
+        if (matchers.isEmpty()) {
+            this.delegate = request -> false;
+        } else {
+            this.delegate = new OrRequestMatcher(matchers);
+        }
+        this.bypassed = bypassed;
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        if (delegate.matches(request)) {
+            bypassed.mark();
+            return true;
+        }
+        return false;
+    }
+}
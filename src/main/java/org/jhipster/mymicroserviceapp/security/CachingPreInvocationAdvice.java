@@ -0,0 +1,261 @@
+package org.jhipster.mymicroserviceapp.security;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.Timer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.security.access.expression.ExpressionUtils;
+import org.springframework.security.access.expression.method.ExpressionBasedPreInvocationAdvice;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreInvocationAttribute;
+import org.springframework.security.access.prepost.PreInvocationAuthorizationAdvice;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Caches the decisions of the {@code @PreAuthorize} expressions which only depend on the authorities of the user,
+ * such as {@code hasAuthority('ROLE_ADMIN')}: they are evaluated once per method and authority set, and the
+ * following calls reuse the decision.
+ *
+ * <p>
+ *     The other expressions (which reference the arguments, the principal, beans or types) and the
+ *     {@code @PreFilter} ones are evaluated each time. The evaluation time of the expressions is reported by the
+ *     "evaluations" timer. The expressions are read from the {@link ExpressionPreInvocationAttribute}s created by the
+ *     {@link ExpressionAttributeFactory}; the other attributes are evaluated by Spring Security, and never cached.
+ * </p>
+ */
+public class CachingPreInvocationAdvice implements PreInvocationAuthorizationAdvice, MetricSet {
+
+    private static final long MAXIMUM_SIZE = 10000;
+
+    private static final Set<String> AUTHORITY_ONLY_IDENTIFIERS = new HashSet<>(Arrays.asList(
+        "hasRole", "hasAnyRole", "hasAuthority", "hasAnyAuthority", "isAuthenticated", "isAnonymous",
+        "permitAll", "denyAll", "and", "or", "not", "true", "false"));
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'|\"(?:[^\"]|\"\")*\"");
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_$][A-Za-z0-9_$]*");
+
+    private static final Authentication ANONYMOUS = new AnonymousAuthenticationToken("compilation", "anonymousUser",
+        AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+    private final ExpressionBasedPreInvocationAdvice delegate = new ExpressionBasedPreInvocationAdvice();
+
+    private MethodSecurityExpressionHandler expressionHandler;
+
+    /**
+     * The attributes are created once per method by the security metadata source, and compared by identity.
+     */
+    private final ConcurrentMap<PreInvocationAttribute, Boolean> authorityOnlyAttributes = new ConcurrentHashMap<>();
+
+    private final Cache<DecisionKey, Boolean> decisions = Caffeine.newBuilder()
+        .maximumSize(MAXIMUM_SIZE)
+        .recordStats()
+        .build();
+
+    private final Timer evaluations = new Timer();
+
+    public void setExpressionHandler(MethodSecurityExpressionHandler expressionHandler) {
+        this.expressionHandler = expressionHandler;
+        delegate.setExpressionHandler(expressionHandler);
+    }
+
+    @Override
+    public boolean before(Authentication authentication, MethodInvocation mi, PreInvocationAttribute attribute) {
+        if (!isAuthorityOnly(attribute)) {
+            return evaluate(authentication, mi, attribute);
+        }
+        DecisionKey key = new DecisionKey(attribute, authentication);
+        Boolean decision = decisions.getIfPresent(key);
+        if (decision == null) {
+            decision = evaluate(authentication, mi, attribute);
+            decisions.put(key, decision);
+        }
+        return decision;
+    }
+
+    /**
+     * Compile the {@code @PreAuthorize} expression of an attribute to bytecode, if it only depends on the
+     * authorities. SpEL only knows the types of the nodes of an expression once it has been evaluated, so it is
+     * evaluated once for an anonymous user first; the branches that this evaluation skips (e.g. the right operand of
+     * a false "and") prevent the compilation, and these expressions are compiled later by the SpEL "mixed" mode.
+     *
+     * @param attribute the attribute of the method
+     * @param mi an invocation of the method, whose arguments are not read
+     * @return true if the expression was compiled
+     */
+    public boolean compile(PreInvocationAttribute attribute, MethodInvocation mi) {
+        if (!isAuthorityOnly(attribute)) {
+            return false;
+        }
+        Expression authorize = ((ExpressionPreInvocationAttribute) attribute).getAuthorizeExpression();
+        if (!(authorize instanceof SpelExpression)) {
+            return false;
+        }
+        try {
+            ExpressionUtils.evaluateAsBoolean(authorize, expressionHandler.createEvaluationContext(ANONYMOUS, mi));
+            return ((SpelExpression) authorize).compileExpression();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private boolean evaluate(Authentication authentication, MethodInvocation mi, PreInvocationAttribute attribute) {
+        Timer.Context context = evaluations.time();
+        try {
+            if (attribute instanceof ExpressionPreInvocationAttribute) {
+                return evaluate(authentication, mi, (ExpressionPreInvocationAttribute) attribute);
+            }
+            return delegate.before(authentication, mi, attribute);
+        } finally {
+            context.stop();
+        }
+    }
+
+    /**
+     * The evaluation of Spring Security's ExpressionBasedPreInvocationAdvice.
+     */
+    private boolean evaluate(Authentication authentication, MethodInvocation mi,
+                             ExpressionPreInvocationAttribute attribute) {
+        EvaluationContext context = expressionHandler.createEvaluationContext(authentication, mi);
+        if (attribute.getFilterExpression() != null) {
+            Object filterTarget = findFilterTarget(attribute.getFilterTarget(), context, mi);
+            expressionHandler.filter(filterTarget, attribute.getFilterExpression(), context);
+        }
+        return ExpressionUtils.evaluateAsBoolean(attribute.getAuthorizeExpression(), context);
+    }
+
+    private static Object findFilterTarget(String filterTargetName, EvaluationContext context, MethodInvocation mi) {
+        Object filterTarget = null;
+        if (filterTargetName != null && filterTargetName.length() > 0) {
+            filterTarget = context.lookupVariable(filterTargetName);
+            if (filterTarget == null) {
+                throw new IllegalArgumentException("Filter target was null, or no argument with name " +
+                    filterTargetName + " found in method");
+            }
+        } else if (mi.getArguments().length == 1) {
+            Object argument = mi.getArguments()[0];
+            if (argument.getClass().isArray() || argument instanceof Collection<?>) {
+                filterTarget = argument;
+            }
+            if (filterTarget == null) {
+                throw new IllegalArgumentException("A PreFilter expression was set but the method argument type" +
+                    argument.getClass() + " is not filterable");
+            }
+        }
+        if (filterTarget == null) {
+            throw new IllegalArgumentException("Unable to determine the filter target of a method with " +
+                mi.getArguments().length + " arguments");
+        }
+        if (filterTarget.getClass().isArray()) {
+            throw new IllegalArgumentException("Pre-filtering on array types is not supported. " +
+                "Using a Collection will solve this problem");
+        }
+        return filterTarget;
+    }
+
+    private boolean isAuthorityOnly(PreInvocationAttribute attribute) {
+        if (!(attribute instanceof ExpressionPreInvocationAttribute)) {
+            return false;
+        }
+        return authorityOnlyAttributes.computeIfAbsent(attribute, key -> {
+            ExpressionPreInvocationAttribute expressions = (ExpressionPreInvocationAttribute) key;
+            return expressions.getFilterExpression() == null &&
+                isAuthorityOnly(expressions.getAuthorizeExpression().getExpressionString());
+        });
+    }
+
+    /**
+     * An expression only depends on the authorities when it only calls the authority checks: no argument
+     * ("#name"), bean ("@name"), type ("T(...)") or property (e.g. "principal.username") is referenced.
+     *
+     * @param expression the SpEL expression
+     * @return true if its value only depends on the authorities of the user
+     */
+    public static boolean isAuthorityOnly(String expression) {
+        String code = STRING_LITERAL.matcher(expression).replaceAll("''");
+        if (code.contains("#") || code.contains("@") || code.contains(".") || code.contains("[")) {
+            return false;
+        }
+        Matcher identifiers = IDENTIFIER.matcher(code);
+        while (identifiers.find()) {
+            if (!AUTHORITY_ONLY_IDENTIFIERS.contains(identifiers.group())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> metrics = new HashMap<>();
+        metrics.put("evaluations", evaluations);
+        metrics.put("decision-cache.hit-ratio", (Gauge<Double>) () -> decisions.stats().hitRate());
+        metrics.put("decision-cache.entries", (Gauge<Long>) decisions::estimatedSize);
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * The decision of an expression depends on its attribute (i.e. the method and expression), the authorities, and
+     * whether the user is authenticated (e.g. for isAuthenticated()).
+     */
+    private static final class DecisionKey {
+
+        private final PreInvocationAttribute attribute;
+
+        private final Collection<? extends GrantedAuthority> authorities;
+
+        private final Class<?> authenticationType;
+
+        private final boolean authenticated;
+
+        private final int hash;
+
+        private DecisionKey(PreInvocationAttribute attribute, Authentication authentication) {
+            this.attribute = attribute;
+            this.authorities = authentication == null ? Collections.emptyList() : authentication.getAuthorities();
+            this.authenticationType = authentication == null ? null : authentication.getClass();
+            this.authenticated = authentication != null && authentication.isAuthenticated();
+            this.hash = Objects.hash(System.identityHashCode(attribute), authorities, authenticationType, authenticated);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DecisionKey)) {
+                return false;
+            }
+            DecisionKey other = (DecisionKey) o;
+            return attribute == other.attribute && authenticated == other.authenticated &&
+                authenticationType == other.authenticationType && authorities.equals(other.authorities);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.jhipster.mymicroserviceapp.security;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.ParseException;
+import org.springframework.security.access.expression.method.ExpressionBasedAnnotationAttributeFactory;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PostInvocationAttribute;
+import org.springframework.security.access.prepost.PreInvocationAttribute;
+import org.springframework.security.access.prepost.PrePostInvocationAttributeFactory;
+
+/**
+ * Creates the attributes of the {@code @PreFilter} and {@code @PreAuthorize} annotations as
+ * {@link ExpressionPreInvocationAttribute}s, whose parsed expressions can be read by the
+ * {@link CachingPreInvocationAdvice}. The attributes of the post-invocation annotations are the ones of Spring
+ * Security.
+ */
+public class ExpressionAttributeFactory implements PrePostInvocationAttributeFactory {
+
+    private final MethodSecurityExpressionHandler expressionHandler;
+
+    private final ExpressionBasedAnnotationAttributeFactory postInvocationAttributeFactory;
+
+    public ExpressionAttributeFactory(MethodSecurityExpressionHandler expressionHandler) {
+        this.expressionHandler = expressionHandler;
+        this.postInvocationAttributeFactory = new ExpressionBasedAnnotationAttributeFactory(expressionHandler);
+    }
+
+    @Override
+    public PreInvocationAttribute createPreInvocationAttribute(String preFilterAttribute, String filterObject,
+                                                               String preAuthorizeAttribute) {
+        // like Spring Security, a method with a @PreFilter but no @PreAuthorize is permitted to all
+        Expression authorizeExpression = parse(preAuthorizeAttribute == null ? "permitAll" : preAuthorizeAttribute);
+        Expression filterExpression = preFilterAttribute == null ? null : parse(preFilterAttribute);
+        return new ExpressionPreInvocationAttribute(filterExpression, filterObject, authorizeExpression);
+    }
+
+    @Override
+    public PostInvocationAttribute createPostInvocationAttribute(String postFilterAttribute,
+                                                                 String postAuthorizeAttribute) {
+        return postInvocationAttributeFactory.createPostInvocationAttribute(postFilterAttribute, postAuthorizeAttribute);
+    }
+
+    private Expression parse(String expression) {
+        ExpressionParser parser = expressionHandler.getExpressionParser();
+        try {
+            return parser.parseExpression(expression);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Failed to parse expression '" + e.getExpressionString() + "'", e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.jhipster.mymicroserviceapp.security;
+
+import org.springframework.expression.Expression;
+import org.springframework.security.access.prepost.PreInvocationAttribute;
+
+/**
+ * The parsed expressions of the {@code @PreFilter} and {@code @PreAuthorize} annotations of a method, created by the
+ * {@link ExpressionAttributeFactory} and evaluated by the {@link CachingPreInvocationAdvice}.
+ */
+public class ExpressionPreInvocationAttribute implements PreInvocationAttribute {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Expression filterExpression;
+
+    private final String filterTarget;
+
+    private final Expression authorizeExpression;
+
+    public ExpressionPreInvocationAttribute(Expression filterExpression, String filterTarget,
+                                            Expression authorizeExpression) {
+        this.filterExpression = filterExpression;
+        this.filterTarget = filterTarget;
+        this.authorizeExpression = authorizeExpression;
+    }
+
+    /**
+     * @return the {@code @PreFilter} expression, or null if there is none
+     */
+    public Expression getFilterExpression() {
+        return filterExpression;
+    }
+
+    /**
+     * @return the name of the argument filtered by the {@code @PreFilter} expression, or null if it is not set
+     */
+    public String getFilterTarget() {
+        return filterTarget;
+    }
+
+    /**
+     * @return the {@code @PreAuthorize} expression, "permitAll" if the method has none
+     */
+    public Expression getAuthorizeExpression() {
+        return authorizeExpression;
+    }
+
+    @Override
+    public String getAttribute() {
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "[authorize: '" + authorizeExpression.getExpressionString() +
+            "', filter: '" + (filterExpression == null ? "null" : filterExpression.getExpressionString()) +
+            "', filterTarget: '" + filterTarget + "']";
+    }
+}
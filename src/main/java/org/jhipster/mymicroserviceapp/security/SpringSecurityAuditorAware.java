@@ -4,15 +4,42 @@ import org.jhipster.mymicroserviceapp.config.Constants;
 
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Implementation of AuditorAware based on Spring Security.
+ *
+ * <p>
+ *     Within a transaction, the auditor is resolved once and bound to the transaction until it completes, so that a
+ *     bulk import doesn't resolve it again for every row it writes.
+ * </p>
  */
 @Component
 public class SpringSecurityAuditorAware implements AuditorAware<String> {
 
+    private static final Object AUDITOR_RESOURCE = SpringSecurityAuditorAware.class.getName() + ".auditor";
+
     @Override
     public String getCurrentAuditor() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return resolveAuditor();
+        }
+        String auditor = (String) TransactionSynchronizationManager.getResource(AUDITOR_RESOURCE);
+        if (auditor == null) {
+            auditor = resolveAuditor();
+            TransactionSynchronizationManager.bindResource(AUDITOR_RESOURCE, auditor);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AUDITOR_RESOURCE);
+                }
+            });
+        }
+        return auditor;
+    }
+
+    private String resolveAuditor() {
         String userName = SecurityUtils.getCurrentUserLogin();
         return userName != null ? userName : Constants.SYSTEM_ACCOUNT;
     }
@@ -0,0 +1,150 @@
+package org.jhipster.mymicroserviceapp.security.jwt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The public keys of a JSON Web Key Set (RFC 7517), indexed by their "kid".
+ *
+ * <p>
+ *     Only the RSA keys and the EC keys on the P-256 curve are read: the other keys, and the keys which can't be
+ *     read, are skipped without failing the whole set. The keys of the previous set which didn't change are reused
+ *     instead of being parsed again.
+ * </p>
+ */
+public final class JsonWebKeySet {
+
+    private static final Logger log = LoggerFactory.getLogger(JsonWebKeySet.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, JsonWebKey> keys;
+
+    private JsonWebKeySet(Map<String, JsonWebKey> keys) {
+        this.keys = Collections.unmodifiableMap(keys);
+    }
+
+    public static JsonWebKeySet empty() {
+        return new JsonWebKeySet(new HashMap<>());
+    }
+
+    /**
+     * @param json the JSON of the key set
+     * @param previous the previous key set, whose unchanged keys are reused
+     */
+    public static JsonWebKeySet parse(InputStream json, JsonWebKeySet previous) throws IOException {
+        Map<String, JsonWebKey> keys = new HashMap<>();
+        for (JsonNode node : MAPPER.readTree(json).path("keys")) {
+            String kid = node.path("kid").asText(null);
+            String kty = node.path("kty").asText();
+            if (kid == null || !("RSA".equals(kty) || "EC".equals(kty)) ||
+                (node.has("use") && !"sig".equals(node.path("use").asText()))) {
+                continue;
+            }
+            if ("EC".equals(kty) && !"P-256".equals(node.path("crv").asText())) {
+                log.debug("Skipping the JWT key {} on the unsupported curve {}", kid, node.path("crv").asText());
+                continue;
+            }
+            String parameters = node.toString();
+            JsonWebKey existing = previous.keys.get(kid);
+            if (existing != null && existing.parameters.equals(parameters)) {
+                keys.put(kid, existing);
+                continue;
+            }
+            try {
+                keys.put(kid, new JsonWebKey(kid, kty, node.path("alg").asText(null), parameters, publicKey(node)));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                log.warn("Skipping the invalid JWT key {}: {}", kid, e.getMessage());
+            }
+        }
+        return new JsonWebKeySet(keys);
+    }
+
+    public JsonWebKey get(String kid) {
+        return keys.get(kid);
+    }
+
+    public Map<String, JsonWebKey> getKeys() {
+        return keys;
+    }
+
+    private static PublicKey publicKey(JsonNode node) throws GeneralSecurityException {
+        if ("RSA".equals(node.path("kty").asText())) {
+            return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(
+                integer(node, "n"), integer(node, "e")));
+        }
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        return KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(
+            new ECPoint(integer(node, "x"), integer(node, "y")), parameters.getParameterSpec(ECParameterSpec.class)));
+    }
+
+    private static BigInteger integer(JsonNode node, String field) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(node.path(field).asText()));
+    }
+
+    /**
+     * A public key of the set.
+     */
+    public static final class JsonWebKey {
+
+        private final String kid;
+
+        private final String kty;
+
+        private final String alg;
+
+        private final String parameters;
+
+        private final PublicKey publicKey;
+
+        private JsonWebKey(String kid, String kty, String alg, String parameters, PublicKey publicKey) {
+            this.kid = kid;
+            this.kty = kty;
+            this.alg = alg;
+            this.parameters = parameters;
+            this.publicKey = publicKey;
+        }
+
+        public String getKid() {
+            return kid;
+        }
+
+        /**
+         * @return the key type: "RSA" or "EC"
+         */
+        public String getKty() {
+            return kty;
+        }
+
+        /**
+         * @return the algorithm the key is restricted to, or null
+         */
+        public String getAlg() {
+            return alg;
+        }
+
+        public PublicKey getPublicKey() {
+            return publicKey;
+        }
+    }
+}
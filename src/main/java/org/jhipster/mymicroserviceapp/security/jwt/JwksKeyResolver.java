@@ -0,0 +1,176 @@
+package org.jhipster.mymicroserviceapp.security.jwt;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.UrlResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resolves the public keys verifying the RS256 and ES256 tokens, by their "kid", from the JSON Web Key Set configured
+ * with "jhipster.security.authentication.jwt.jwks.uri" (a file, a classpath resource or an URL).
+ *
+ * <p>
+ *     The key set is parsed once, and refreshed in the background. A token signed with a key which is not in the set
+ *     yet triggers a refresh, at most once every {@value #MIN_REFRESH_INTERVAL_IN_SECONDS} seconds, so that the keys
+ *     can be rotated without downtime: publish the new key, then sign with it, then remove the old key. The tokens
+ *     verified with a removed key are evicted from the {@link VerifiedTokenCache}.
+ * </p>
+ *
+ * <p>
+ *     Only one refresh runs at a time: the tokens with an unknown key which arrive during a refresh are rejected
+ *     instead of waiting for it, so that a burst of forged kids neither queues the requests nor floods the key server.
+ *     The key set is downloaded with connect and read timeouts.
+ * </p>
+ */
+@Component
+public class JwksKeyResolver {
+
+    private static final long MIN_REFRESH_INTERVAL_IN_SECONDS = 30;
+
+    private final Logger log = LoggerFactory.getLogger(JwksKeyResolver.class);
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @Inject
+    private ResourceLoader resourceLoader;
+
+    @Inject
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private volatile JsonWebKeySet keySet = JsonWebKeySet.empty();
+
+    private volatile long refreshedAt;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() {
+        if (isEnabled()) {
+            refresh();
+        }
+    }
+
+    public boolean isEnabled() {
+        return jHipsterProperties.getSecurity().getAuthentication().getJwt().getJwks().getUri() != null;
+    }
+
+    /**
+     * Resolve the key verifying a token.
+     *
+     * @param kid the "kid" header of the token
+     * @param algorithm the "alg" header of the token: RS256 or ES256
+     * @return the public key
+     * @throws UnsupportedJwtException if the algorithm is not supported, or the key set is not configured
+     * @throws SignatureException if there is no key for this token
+     */
+    public PublicKey resolve(String kid, SignatureAlgorithm algorithm) {
+        if (!isEnabled() || (algorithm != SignatureAlgorithm.RS256 && algorithm != SignatureAlgorithm.ES256)) {
+            throw new UnsupportedJwtException("Unsupported JWT algorithm " + algorithm);
+        }
+        if (kid == null) {
+            throw new SignatureException("No kid in the " + algorithm + " JWT header");
+        }
+        JsonWebKeySet.JsonWebKey key = keySet.get(kid);
+        if (key == null && isRefreshDue() && refreshForUnknownKey(kid)) {
+            key = keySet.get(kid);
+        }
+        if (key == null) {
+            throw new SignatureException("Unknown JWT key " + kid);
+        }
+        String keyType = algorithm == SignatureAlgorithm.RS256 ? "RSA" : "EC";
+        if (!keyType.equals(key.getKty()) || (key.getAlg() != null && !key.getAlg().equals(algorithm.getValue()))) {
+            throw new SignatureException("JWT key " + kid + " can't verify " + algorithm + " signatures");
+        }
+        return key.getPublicKey();
+    }
+
+    /**
+     * Reload the key set. On failure, the current keys are kept.
+     */
+    @Scheduled(initialDelayString = "${jhipster.security.authentication.jwt.jwks.refreshIntervalInMilliseconds:300000}",
+        fixedDelayString = "${jhipster.security.authentication.jwt.jwks.refreshIntervalInMilliseconds:300000}")
+    public void refresh() {
+        if (!isEnabled()) {
+            return;
+        }
+        refreshLock.lock();
+        try {
+            load();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean isRefreshDue() {
+        return System.currentTimeMillis() - refreshedAt > TimeUnit.SECONDS.toMillis(MIN_REFRESH_INTERVAL_IN_SECONDS);
+    }
+
+    /**
+     * Reload the key set for a token with an unknown key, unless another refresh is running or has just run.
+     *
+     * @return true if the key set was reloaded
+     */
+    private boolean refreshForUnknownKey(String kid) {
+        if (!refreshLock.tryLock()) {
+            return false;
+        }
+        try {
+            if (!isRefreshDue()) {
+                return false;
+            }
+            log.debug("Unknown JWT key {}, refreshing the key set", kid);
+            load();
+            return true;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void load() {
+        JHipsterProperties.Security.Authentication.Jwt.Jwks jwks =
+            jHipsterProperties.getSecurity().getAuthentication().getJwt().getJwks();
+        String uri = jwks.getUri();
+        refreshedAt = System.currentTimeMillis();
+        Resource resource = resourceLoader.getResource(uri);
+        try (InputStream json = open(resource, jwks)) {
+            JsonWebKeySet previous = keySet;
+            keySet = JsonWebKeySet.parse(json, previous);
+            log.debug("Loaded the JWT keys {} from {}", keySet.getKeys().keySet(), uri);
+            if (previous.getKeys().entrySet().stream().anyMatch(key -> keySet.get(key.getKey()) != key.getValue())) {
+                log.info("JWT keys were removed or replaced, evicting the verified tokens");
+                verifiedTokenCache.invalidateAll();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not load the JWT keys from {}, keeping the current keys: {}", uri, e.getMessage());
+        }
+    }
+
+    private InputStream open(Resource resource, JHipsterProperties.Security.Authentication.Jwt.Jwks jwks)
+        throws IOException {
+        if (!(resource instanceof UrlResource) || !resource.getURL().getProtocol().startsWith("http")) {
+            return resource.getInputStream();
+        }
+        URLConnection connection = resource.getURL().openConnection();
+        connection.setConnectTimeout(jwks.getConnectTimeoutInMilliseconds());
+        connection.setReadTimeout(jwks.getReadTimeoutInMilliseconds());
+        return connection.getInputStream();
+    }
+}
@@ -0,0 +1,133 @@
+package org.jhipster.mymicroserviceapp.security.jwt;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Mints the HS512 tokens of the {@link TokenProvider} from pre-serialized templates, rather than building a claims
+ * map and a header, and serializing them with Jackson, for every token.
+ *
+ * <p>
+ *     The header is the same for all the tokens, so it is encoded once. The claims are serialized from a template
+ *     per set of authorities, which holds the "auth" claim already joined and escaped: only the subject and the
+ *     expiry are written for each token. The templates of up to {@value #MAX_TEMPLATES} sets of authorities are
+ *     kept, the other ones are serialized each time. The tokens are the same as the ones of the JJWT builder.
+ * </p>
+ */
+final class TokenMinter {
+
+    private static final int MAX_TEMPLATES = 1024;
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private static final String HEADER = BASE64_URL.encodeToString("{\"alg\":\"HS512\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final ConcurrentMap<AuthoritiesKey, String> templates = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * @param hmacKey the HS512 secret
+     */
+    TokenMinter(Key hmacKey) {
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA512");
+                mac.init(hmacKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Could not create the HS512 signer", e);
+            }
+        });
+    }
+
+    /**
+     * @param subject the "sub" claim
+     * @param authorities the authorities, joined in the "auth" claim
+     * @param expiryInMillis the "exp" claim
+     * @return the signed token
+     */
+    String mint(String subject, Collection<? extends GrantedAuthority> authorities, long expiryInMillis) {
+        StringBuilder claims = new StringBuilder(64 + subject.length() + 16 * authorities.size());
+        claims.append("{\"sub\":\"");
+        appendEscaped(claims, subject);
+        claims.append('"').append(template(authorities)).append(expiryInMillis / 1000).append('}');
+        String payload = HEADER + '.' + BASE64_URL.encodeToString(claims.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] signature = macs.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        return payload + '.' + BASE64_URL.encodeToString(signature);
+    }
+
+    /**
+     * @return the claims which follow the subject, up to the value of the expiry: ,"auth":"...","exp":
+     */
+    private String template(Collection<? extends GrantedAuthority> authorities) {
+        AuthoritiesKey key = new AuthoritiesKey(authorities);
+        String template = templates.get(key);
+        if (template == null) {
+            StringBuilder builder = new StringBuilder(",\"auth\":\"");
+            for (int i = 0; i < key.names.length; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                appendEscaped(builder, key.names[i]);
+            }
+            template = builder.append("\",\"exp\":").toString();
+            if (templates.size() < MAX_TEMPLATES) {
+                templates.putIfAbsent(key, template);
+            }
+        }
+        return template;
+    }
+
+    private static void appendEscaped(StringBuilder builder, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+    }
+
+    /**
+     * The names of a set of authorities, in their order.
+     */
+    private static final class AuthoritiesKey {
+
+        private final String[] names;
+
+        private final int hash;
+
+        private AuthoritiesKey(Collection<? extends GrantedAuthority> authorities) {
+            this.names = new String[authorities.size()];
+            Iterator<? extends GrantedAuthority> iterator = authorities.iterator();
+            for (int i = 0; i < names.length; i++) {
+                names[i] = iterator.next().getAuthority();
+            }
+            this.hash = Arrays.hashCode(names);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof AuthoritiesKey && Arrays.equals(names, ((AuthoritiesKey) o).names);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.jhipster.mymicroserviceapp.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Result of the validation of a JWT by the {@link TokenProvider}: the claims of the token and its authentication when it
+ * is valid, or the reason why it is not.
+ *
+ * <p>A validation is shared by all the requests sending the same token (see {@link VerifiedTokenCache}): it only keeps
+ * the subject and authorities of the token, and creates a new authentication for each request, as the authentications
+ * are mutable.</p>
+ */
+public final class TokenValidation {
+
+    public enum Status {
+        VALID,
+        EXPIRED,
+        INVALID_SIGNATURE,
+        MALFORMED,
+        UNSUPPORTED
+    }
+
+    private final Status status;
+
+    private final Claims claims;
+
+    private final String subject;
+
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    private final String message;
+
+    private TokenValidation(Status status, Claims claims, String subject,
+                            Collection<? extends GrantedAuthority> authorities, String message) {
+        this.status = status;
+        this.claims = claims;
+        this.subject = subject;
+        this.authorities = authorities;
+        this.message = message;
+    }
+
+    public static TokenValidation valid(Claims claims, Collection<? extends GrantedAuthority> authorities) {
+        return new TokenValidation(Status.VALID, claims, claims.getSubject(),
+            Collections.unmodifiableList(new ArrayList<>(authorities)), null);
+    }
+
+    /**
+     * @param claims the claims of the token, when they could be read (e.g. the claims of an expired token), or null
+     */
+    public static TokenValidation invalid(Status status, Claims claims, String message) {
+        return new TokenValidation(status, claims, null, Collections.emptyList(), message);
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    /**
+     * @return the authorities of a valid token, or an empty collection
+     */
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * @return a new authentication of a valid token, or null
+     */
+    public Authentication getAuthentication() {
+        if (!isValid()) {
+            return null;
+        }
+        User principal = new User(subject, "", authorities);
+        return new UsernamePasswordAuthenticationToken(principal, "", authorities);
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "TokenValidation{" +
+            "status=" + status +
+            ", message='" + message + '\'' +
+            '}';
+    }
+}
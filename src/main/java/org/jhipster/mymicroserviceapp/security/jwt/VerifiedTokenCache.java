@@ -0,0 +1,163 @@
+package org.jhipster.mymicroserviceapp.security.jwt;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of the tokens already verified by the {@link TokenProvider}, with their claims and authorities,
+ * so that the signature of a token sent with many requests is only verified once.
+ *
+ * <p>
+ *     The tokens are keyed by their SHA-256 digest, so the cache doesn't keep the tokens themselves. An entry is only
+ *     served until the expiry of its token: after that, the token is verified again, and rejected as expired. The
+ *     memory used by the cache is bounded by weighing each entry with an estimation of its size.
+ * </p>
+ */
+@Component
+public class VerifiedTokenCache implements MetricSet {
+
+    /**
+     * Estimation of the heap used by an entry, besides the strings of its claims: the digest, the claims map, the
+     * validation with its list of authorities, and the cache node.
+     */
+    private static final int ESTIMATED_BYTES_PER_ENTRY = 500;
+
+    private static final int ESTIMATED_BYTES_PER_AUTHORITY = 80;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final AtomicLong expiredHits = new AtomicLong();
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    private Cache<TokenDigest, Entry> tokens;
+
+    private boolean enabled;
+
+    @PostConstruct
+    public void init() {
+        JHipsterProperties.Security.Authentication.Jwt.VerifiedTokens properties =
+            jHipsterProperties.getSecurity().getAuthentication().getJwt().getVerifiedTokens();
+        enabled = properties.isEnabled();
+        tokens = Caffeine.newBuilder()
+            .maximumWeight(properties.getMaxBytes())
+            .weigher((TokenDigest digest, Entry entry) -> entry.estimatedBytes)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * @return the validation of a token verified before, or null if it has to be verified
+     */
+    public TokenValidation get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        TokenDigest digest = new TokenDigest(token);
+        Entry entry = tokens.getIfPresent(digest);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= entry.expiresAt) {
+            expiredHits.incrementAndGet();
+            tokens.invalidate(digest);
+            return null;
+        }
+        return entry.validation;
+    }
+
+    /**
+     * Keep the validation of a valid token until the token expires. Tokens without an expiry are not kept.
+     */
+    public void put(String token, TokenValidation validation) {
+        Date expiration = validation.getClaims().getExpiration();
+        if (!enabled || !validation.isValid() || expiration == null) {
+            return;
+        }
+        tokens.put(new TokenDigest(token), new Entry(validation, expiration.getTime()));
+    }
+
+    public void invalidateAll() {
+        tokens.invalidateAll();
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> gauges = new HashMap<>();
+        gauges.put("hit-ratio", (Gauge<Double>) () -> tokens.stats().hitRate());
+        gauges.put("hits", (Gauge<Long>) () -> tokens.stats().hitCount());
+        gauges.put("misses", (Gauge<Long>) () -> tokens.stats().missCount());
+        gauges.put("expired-hits", (Gauge<Long>) expiredHits::get);
+        gauges.put("entries", (Gauge<Long>) () -> tokens.estimatedSize());
+        gauges.put("bytes", (Gauge<Long>) () -> tokens.policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L));
+        return Collections.unmodifiableMap(gauges);
+    }
+
+    private static final class Entry {
+
+        private final TokenValidation validation;
+
+        private final long expiresAt;
+
+        private final int estimatedBytes;
+
+        private Entry(TokenValidation validation, long expiresAt) {
+            this.validation = validation;
+            this.expiresAt = expiresAt;
+            int bytes = ESTIMATED_BYTES_PER_ENTRY;
+            for (Map.Entry<String, Object> claim : validation.getClaims().entrySet()) {
+                bytes += 2 * (claim.getKey().length() + String.valueOf(claim.getValue()).length());
+            }
+            this.estimatedBytes = bytes + ESTIMATED_BYTES_PER_AUTHORITY *
+                validation.getAuthorities().size();
+        }
+    }
+
+    private static final class TokenDigest {
+
+        private final byte[] digest;
+
+        private final int hash;
+
+        private TokenDigest(String token) {
+            this.digest = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+            this.hash = Arrays.hashCode(digest);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof TokenDigest && Arrays.equals(digest, ((TokenDigest) o).digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -12,6 +12,11 @@ import java.util.List;
  */
 public interface BookService {
 
+    /**
+     * Name of the cache of the books returned by {@link #findOne(Long)}.
+     */
+    String BOOKS_BY_ID_CACHE = "booksById";
+
     /**
      * Save a book.
      *
@@ -20,6 +25,15 @@ public interface BookService {
      */
     BookDTO save(BookDTO bookDTO);
 
+    /**
+     * Save a list of books, indexing them with bulk requests.
+     * Large lists switch the book index to bulk-load mode for the duration of the import.
+     *
+     * @param bookDTOs the entities to save
+     * @return the persisted entities
+     */
+    List<BookDTO> save(List<BookDTO> bookDTOs);
+
     /**
      *  Get all the books.
      *  
@@ -52,4 +66,13 @@ public interface BookService {
      *  @return the list of entities
      */
     Page<BookDTO> search(String query, Pageable pageable);
+
+    /**
+     * Search for the books whose author matches the given name, tolerating misspellings.
+     *
+     *  @param author the (possibly misspelled, or partial) name of the author
+     *  @param pageable the pagination information
+     *  @return the list of entities
+     */
+    Page<BookDTO> searchByAuthor(String author, Pageable pageable);
 }
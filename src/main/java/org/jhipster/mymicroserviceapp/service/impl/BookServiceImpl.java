@@ -1,21 +1,40 @@
 package org.jhipster.mymicroserviceapp.service.impl;
 
+import org.jhipster.mymicroserviceapp.cache.BookNegativeCache;
+import org.jhipster.mymicroserviceapp.cache.CacheInvalidationBus;
 import org.jhipster.mymicroserviceapp.service.BookService;
 import org.jhipster.mymicroserviceapp.domain.Book;
 import org.jhipster.mymicroserviceapp.repository.BookRepository;
 import org.jhipster.mymicroserviceapp.repository.search.BookSearchRepository;
 import org.jhipster.mymicroserviceapp.service.dto.BookDTO;
 import org.jhipster.mymicroserviceapp.service.mapper.BookMapper;
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+import org.jhipster.mymicroserviceapp.service.search.BookIndexBulkLoader;
+import org.jhipster.mymicroserviceapp.service.search.BookSearchCache;
+import org.jhipster.mymicroserviceapp.service.search.BookSearchHydrator;
+import org.elasticsearch.common.unit.Fuzziness;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.MatchQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -39,21 +58,116 @@ public class BookServiceImpl implements BookService{
     @Inject
     private BookSearchRepository bookSearchRepository;
 
+    @Inject
+    private BookSearchHydrator bookSearchHydrator;
+
+    @Inject
+    private BookSearchCache bookSearchCache;
+
+    @Inject
+    private BookIndexBulkLoader bookIndexBulkLoader;
+
+    @Inject
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @Inject
+    private BookNegativeCache bookNegativeCache;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
     /**
      * Save a book.
      *
      * @param bookDTO the entity to save
      * @return the persisted entity
      */
+    @CachePut(cacheNames = BOOKS_BY_ID_CACHE, key = "#result.id")
     public BookDTO save(BookDTO bookDTO) {
         log.debug("Request to save Book : {}", bookDTO);
         Book book = bookMapper.bookDTOToBook(bookDTO);
-        book = bookRepository.save(book);
+        attachVersions(Collections.singletonList(book));
+        // flush first, so that the indexed document carries the version incremented by the update
+        book = bookRepository.saveAndFlush(book);
         BookDTO result = bookMapper.bookToBookDTO(book);
+        bookNegativeCache.invalidate(book.getId());
         bookSearchRepository.save(book);
+        bookSearchCache.invalidate();
+        cacheInvalidationBus.publish(Book.class.getName(), book.getId());
         return result;
     }
 
+    /**
+     * Save a list of books, indexing them with bulk requests. The whole list is rolled back if some books could not
+     * be indexed: the documents of the created books that were indexed are then deleted, while the documents of the
+     * updated books, whose version doesn't match the database anymore, are reloaded by the BookSearchHydrator.
+     *
+     * @param bookDTOs the entities to save
+     * @return the persisted entities
+     */
+    @CacheEvict(cacheNames = BOOKS_BY_ID_CACHE, allEntries = true)
+    public List<BookDTO> save(List<BookDTO> bookDTOs) {
+        log.debug("Request to save {} Books", bookDTOs.size());
+        List<Book> books = bookMapper.bookDTOsToBooks(bookDTOs);
+        attachVersions(books);
+        List<Boolean> created = books.stream().map(book -> book.getId() == null).collect(Collectors.toList());
+        books = bookRepository.save(books);
+        bookRepository.flush();
+        books.forEach(book -> bookNegativeCache.invalidate(book.getId()));
+        boolean bulkLoad = books.size() >= jHipsterProperties.getSearch().getBulk().getAutoThreshold();
+        if (bulkLoad) {
+            bookIndexBulkLoader.enter();
+        }
+        Set<Long> failures;
+        try {
+            failures = bookIndexBulkLoader.index(books);
+        } finally {
+            if (bulkLoad) {
+                bookIndexBulkLoader.exit();
+            }
+        }
+        if (!failures.isEmpty()) {
+            List<Long> indexedCreations = new ArrayList<>();
+            for (int i = 0; i < books.size(); i++) {
+                if (created.get(i) && !failures.contains(books.get(i).getId())) {
+                    indexedCreations.add(books.get(i).getId());
+                }
+            }
+            bookIndexBulkLoader.delete(indexedCreations);
+            // rolls the import back
+            throw new IllegalStateException(failures.size() + " of the " + books.size() +
+                " saved Books could not be indexed");
+        }
+        // the cached results are invalidated once the transaction is committed, the books must be searchable by then
+        bookIndexBulkLoader.refresh();
+        bookSearchCache.invalidate();
+        books.forEach(book -> cacheInvalidationBus.publish(Book.class.getName(), book.getId()));
+        return bookMapper.booksToBookDTOs(books);
+    }
+
+    /**
+     * The DTOs don't carry the version of the books: the updated books get their current version, so that Hibernate
+     * merges them and increments it, and the books which don't exist anymore are created again, as new books.
+     */
+    private void attachVersions(List<Book> books) {
+        List<Long> ids = books.stream().map(Book::getId).filter(Objects::nonNull).collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> versions = new HashMap<>();
+        for (Object[] idAndVersion : bookRepository.findVersionsByIdIn(ids)) {
+            versions.put((Long) idAndVersion[0], (Long) idAndVersion[1]);
+        }
+        for (Book book : books) {
+            if (book.getId() != null) {
+                book.setVersion(versions.get(book.getId()));
+                if (book.getVersion() == null) {
+                    book.setId(null);
+                }
+            }
+        }
+    }
+
     /**
      *  Get all the books.
      *  
@@ -74,9 +188,16 @@ public class BookServiceImpl implements BookService{
      *  @return the entity
      */
     @Transactional(readOnly = true) 
+    @Cacheable(cacheNames = BOOKS_BY_ID_CACHE, sync = true)
     public BookDTO findOne(Long id) {
         log.debug("Request to get Book : {}", id);
+        if (bookNegativeCache.isKnownAbsent(id)) {
+            return null;
+        }
         Book book = bookRepository.findOne(id);
+        if (book == null) {
+            bookNegativeCache.recordAbsent(id);
+        }
         BookDTO bookDTO = bookMapper.bookToBookDTO(book);
         return bookDTO;
     }
@@ -86,10 +207,13 @@ public class BookServiceImpl implements BookService{
      *
      *  @param id the id of the entity
      */
+    @CacheEvict(cacheNames = BOOKS_BY_ID_CACHE)
     public void delete(Long id) {
         log.debug("Request to delete Book : {}", id);
         bookRepository.delete(id);
         bookSearchRepository.delete(id);
+        bookSearchCache.invalidate();
+        cacheInvalidationBus.publish(Book.class.getName(), id);
     }
 
     /**
@@ -101,7 +225,47 @@ public class BookServiceImpl implements BookService{
     @Transactional(readOnly = true)
     public Page<BookDTO> search(String query, Pageable pageable) {
         log.debug("Request to search for a page of Books for query {}", query);
-        Page<Book> result = bookSearchRepository.search(queryStringQuery(query), pageable);
-        return result.map(book -> bookMapper.bookToBookDTO(book));
+        return bookSearchCache.get("query", query, pageable, () -> {
+            Page<Book> result = bookSearchHydrator.hydrate(bookSearchRepository.search(queryStringQuery(query), pageable), pageable);
+            return result.map(book -> bookMapper.bookToBookDTO(book));
+        });
+    }
+
+    /**
+     * Search for the books whose author matches the given name, tolerating misspellings.
+     *
+     *  @param author the (possibly misspelled, or partial) name of the author
+     *  @param pageable the pagination information
+     *  @return the list of entities
+     */
+    @Transactional(readOnly = true)
+    public Page<BookDTO> searchByAuthor(String author, Pageable pageable) {
+        log.debug("Request to search for a page of Books for author {}", author);
+        return bookSearchCache.get("author", author, pageable, () -> {
+            Page<Book> result = bookSearchHydrator.hydrate(bookSearchRepository.search(authorQuery(author), pageable), pageable);
+            return result.map(book -> bookMapper.bookToBookDTO(book));
+        });
+    }
+
+    /**
+     * Exact matches score first, then prefixes (edge n-grams of the "author.prefix" field), then fuzzy matches with
+     * a bounded edit distance, so that misspelled names never need a wildcard query scanning every term. With the
+     * "phonetic" option, the names sounding alike (the "author.phonetic" field) match as well.
+     */
+    private QueryBuilder authorQuery(String author) {
+        JHipsterProperties.Search.Fuzzy fuzzy = jHipsterProperties.getSearch().getFuzzy();
+        BoolQueryBuilder query = boolQuery()
+            .should(matchQuery("author", author).operator(MatchQueryBuilder.Operator.AND).boost(3))
+            .should(matchQuery("author.prefix", author).operator(MatchQueryBuilder.Operator.AND).boost(2))
+            .should(matchQuery("author", author)
+                .operator(MatchQueryBuilder.Operator.AND)
+                .fuzziness(Fuzziness.fromEdits(fuzzy.getMaxEdits()))
+                .prefixLength(fuzzy.getPrefixLength())
+                .maxExpansions(fuzzy.getMaxExpansions()))
+            .minimumNumberShouldMatch(1);
+        if (fuzzy.isPhonetic()) {
+            query.should(matchQuery("author.phonetic", author).operator(MatchQueryBuilder.Operator.AND));
+        }
+        return query;
     }
 }
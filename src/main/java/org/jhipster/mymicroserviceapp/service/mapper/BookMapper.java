@@ -16,6 +16,7 @@ public interface BookMapper {
 
     List<BookDTO> booksToBookDTOs(List<Book> books);
 
+    @Mapping(target = "version", ignore = true)
     Book bookDTOToBook(BookDTO bookDTO);
 
     List<Book> bookDTOsToBooks(List<BookDTO> bookDTOs);
@@ -0,0 +1,318 @@
+package org.jhipster.mymicroserviceapp.service.search;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+import org.jhipster.mymicroserviceapp.domain.Book;
+
+import org.elasticsearch.action.bulk.BackoffPolicy;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.ActionRequest;
+import org.elasticsearch.action.bulk.BulkProcessor;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk-load mode of the book index.
+ *
+ * <p>
+ *     While the mode is active, the index is not refreshed and has no replicas, so that large imports don't compete
+ *     with index refreshes. The mode can be held by several imports at the same time (and once by the management
+ *     API), on several instances: each instance holding the mode keeps a lease in the "&lt;index&gt;-bulk-leases"
+ *     index, renewed every minute. The configured replicas and refresh interval are restored, followed by a forced
+ *     refresh, when the last holder of the last instance leaves it. The leases of the instances which stopped without
+ *     leaving the mode expire, and the mode is then left by the next instance checking them, so that the index is
+ *     never left without refreshes.
+ * </p>
+ */
+@Component
+public class BookIndexBulkLoader {
+
+    private static final String LEASE_TYPE = "lease";
+
+    private static final String EXPIRES_AT = "expiresAt";
+
+    private final Logger log = LoggerFactory.getLogger(BookIndexBulkLoader.class);
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final AtomicInteger holders = new AtomicInteger();
+
+    private final AtomicBoolean heldByApi = new AtomicBoolean();
+
+    private volatile long heldByApiSince;
+
+    @Inject
+    private ElasticsearchTemplate elasticsearchTemplate;
+
+    @Inject
+    private EntityMapper entityMapper;
+
+    @Inject
+    private BookSearchCache bookSearchCache;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    /**
+     * @return true if this instance holds the bulk-load mode
+     */
+    public boolean isActive() {
+        return holders.get() > 0;
+    }
+
+    /**
+     * Enter the bulk-load mode from the management API. Does nothing if the API already holds the mode.
+     */
+    public void enterFromApi() {
+        if (heldByApi.compareAndSet(false, true)) {
+            heldByApiSince = System.currentTimeMillis();
+            enter();
+        }
+    }
+
+    /**
+     * Leave the bulk-load mode entered from the management API. Does nothing if the API doesn't hold the mode.
+     */
+    public void exitFromApi() {
+        if (heldByApi.compareAndSet(true, false)) {
+            exit();
+        }
+    }
+
+    /**
+     * Enter the bulk-load mode: every call must be followed by a call to {@link #exit()}.
+     */
+    public synchronized void enter() {
+        if (holders.getAndIncrement() == 0) {
+            log.info("Entering bulk-load mode for the book index");
+            renewLease();
+            updateSettings("-1", 0);
+        }
+    }
+
+    /**
+     * Leave the bulk-load mode, restoring the index settings if this was the last holder of all the instances.
+     */
+    public synchronized void exit() {
+        if (holders.get() == 0) {
+            return;
+        }
+        if (holders.decrementAndGet() == 0) {
+            releaseLease();
+            long leases = countLeases();
+            if (leases == 0) {
+                restoreSettings();
+            } else {
+                log.info("Bulk-load mode for the book index is still held by {} other instance(s)", leases);
+            }
+        }
+    }
+
+    /**
+     * Renew the lease of this instance while it holds the mode, release the mode held by the API for too long, and
+     * leave the mode abandoned by the instances which stopped without leaving it.
+     */
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public synchronized void checkLeases() {
+        JHipsterProperties.Search.Bulk bulk = jHipsterProperties.getSearch().getBulk();
+        if (heldByApi.get() &&
+            System.currentTimeMillis() - heldByApiSince > TimeUnit.SECONDS.toMillis(bulk.getApiHoldTimeoutInSeconds())) {
+            log.warn("Leaving bulk-load mode for the book index, held by the management API for more than {} s",
+                bulk.getApiHoldTimeoutInSeconds());
+            exitFromApi();
+        }
+        if (holders.get() > 0) {
+            renewLease();
+        } else if (countLeases() == 0 && "-1".equals(currentRefreshInterval())) {
+            log.warn("Bulk-load mode for the book index was abandoned by a stopped instance");
+            restoreSettings();
+        }
+    }
+
+    /**
+     * Make the indexed books visible to the searches: the index is refreshed now, unless it is in bulk-load mode,
+     * in which case it is refreshed when the mode is left.
+     */
+    public void refresh() {
+        if (!"-1".equals(currentRefreshInterval())) {
+            elasticsearchTemplate.refresh(Book.class);
+        }
+    }
+
+    /**
+     * Index the books with a bulk processor. The index is not refreshed.
+     *
+     * @param books the books to index
+     * @return the ids of the books that could not be indexed
+     */
+    public Set<Long> index(List<Book> books) {
+        JHipsterProperties.Search.Bulk bulk = jHipsterProperties.getSearch().getBulk();
+        ElasticsearchPersistentEntity<?> entity = elasticsearchTemplate.getPersistentEntityFor(Book.class);
+        Set<Long> failures = ConcurrentHashMap.newKeySet();
+        BulkProcessor bulkProcessor = BulkProcessor.builder(elasticsearchTemplate.getClient(), new BulkProcessor.Listener() {
+            @Override
+            public void beforeBulk(long executionId, BulkRequest request) {
+                log.debug("Sending bulk request {} with {} books", executionId, request.numberOfActions());
+            }
+
+            @Override
+            public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+                if (response.hasFailures()) {
+                    long failed = 0;
+                    for (BulkItemResponse item : response.getItems()) {
+                        if (item.isFailed()) {
+                            failures.add(Long.valueOf(item.getId()));
+                            failed++;
+                        }
+                    }
+                    log.error("Bulk request {} failed for {} books: {}", executionId, failed, response.buildFailureMessage());
+                }
+            }
+
+            @Override
+            public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+                for (ActionRequest<?> action : request.requests()) {
+                    failures.add(Long.valueOf(((IndexRequest) action).id()));
+                }
+                log.error("Bulk request {} failed: {}", executionId, failure.getMessage(), failure);
+            }
+        })
+            .setBulkActions(bulk.getActions())
+            .setBulkSize(new ByteSizeValue(bulk.getSizeInMb(), ByteSizeUnit.MB))
+            .setConcurrentRequests(bulk.getConcurrentRequests())
+            .setFlushInterval(TimeValue.timeValueSeconds(bulk.getFlushIntervalInSeconds()))
+            .setBackoffPolicy(BackoffPolicy.exponentialBackoff())
+            .build();
+        try {
+            for (Book book : books) {
+                bulkProcessor.add(new IndexRequest(entity.getIndexName(), entity.getIndexType(), book.getId().toString())
+                    .source(entityMapper.mapToString(book)));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize a book for bulk indexing", e);
+        } finally {
+            try {
+                bulkProcessor.awaitClose(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Delete the documents of the books with one bulk request. The index is not refreshed.
+     *
+     * @param ids the ids of the books
+     * @return true if all the documents were deleted
+     */
+    public boolean delete(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return true;
+        }
+        ElasticsearchPersistentEntity<?> entity = elasticsearchTemplate.getPersistentEntityFor(Book.class);
+        BulkRequestBuilder bulkRequest = elasticsearchTemplate.getClient().prepareBulk();
+        for (Long id : ids) {
+            bulkRequest.add(new DeleteRequest(entity.getIndexName(), entity.getIndexType(), id.toString()));
+        }
+        BulkResponse response = bulkRequest.get();
+        if (response.hasFailures()) {
+            log.error("Could not delete some of the {} books: {}", ids.size(), response.buildFailureMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private void restoreSettings() {
+        JHipsterProperties.Search.Index index = jHipsterProperties.getSearch().getIndex();
+        log.info("Leaving bulk-load mode for the book index");
+        updateSettings(index.getRefreshInterval(), index.getReplicas());
+        elasticsearchTemplate.refresh(Book.class);
+        // the results computed while the index was not refreshed miss the books imported meanwhile
+        bookSearchCache.invalidate();
+    }
+
+    private String leaseIndex() {
+        return elasticsearchTemplate.getPersistentEntityFor(Book.class).getIndexName() + "-bulk-leases";
+    }
+
+    private void renewLease() {
+        long expiresAt = System.currentTimeMillis() +
+            TimeUnit.SECONDS.toMillis(jHipsterProperties.getSearch().getBulk().getLeaseTimeToLiveInSeconds());
+        elasticsearchTemplate.getClient().prepareIndex(leaseIndex(), LEASE_TYPE, instanceId)
+            .setSource(Collections.singletonMap(EXPIRES_AT, expiresAt))
+            .setRefresh(true)
+            .get();
+    }
+
+    private void releaseLease() {
+        if (elasticsearchTemplate.indexExists(leaseIndex())) {
+            elasticsearchTemplate.getClient().prepareDelete(leaseIndex(), LEASE_TYPE, instanceId)
+                .setRefresh(true)
+                .get();
+        }
+    }
+
+    /**
+     * @return the number of instances holding an unexpired lease
+     */
+    private long countLeases() {
+        if (!elasticsearchTemplate.indexExists(leaseIndex())) {
+            return 0;
+        }
+        return elasticsearchTemplate.getClient().prepareSearch(leaseIndex())
+            .setTypes(LEASE_TYPE)
+            .setQuery(QueryBuilders.rangeQuery(EXPIRES_AT).gt(System.currentTimeMillis()))
+            .setSize(0)
+            .get()
+            .getHits()
+            .getTotalHits();
+    }
+
+    private String currentRefreshInterval() {
+        String indexName = elasticsearchTemplate.getPersistentEntityFor(Book.class).getIndexName();
+        if (!elasticsearchTemplate.indexExists(indexName)) {
+            return null;
+        }
+        return elasticsearchTemplate.getClient().admin().indices().prepareGetSettings(indexName).get()
+            .getSetting(indexName, "index.refresh_interval");
+    }
+
+    private void updateSettings(String refreshInterval, int replicas) {
+        String indexName = elasticsearchTemplate.getPersistentEntityFor(Book.class).getIndexName();
+        if (!elasticsearchTemplate.indexExists(indexName)) {
+            return;
+        }
+        elasticsearchTemplate.getClient().admin().indices().prepareUpdateSettings(indexName)
+            .setSettings(Settings.settingsBuilder()
+                .put("index.refresh_interval", refreshInterval)
+                .put("index.number_of_replicas", replicas))
+            .get();
+    }
+}
@@ -0,0 +1,165 @@
+package org.jhipster.mymicroserviceapp.service.search;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+import org.jhipster.mymicroserviceapp.service.dto.BookDTO;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache of book search results.
+ *
+ * <p>
+ *     Entries are keyed by the normalized query, the pagination information and the book index generation. The
+ *     generation is bumped after every committed write to the index, so results computed before the write are never
+ *     returned again and simply age out of the cache. The cache is bounded by an estimation of its size in bytes,
+ *     and Caffeine's W-TinyLFU policy keeps the popular queries.
+ * </p>
+ */
+@Component
+public class BookSearchCache implements MetricSet {
+
+    private final Logger log = LoggerFactory.getLogger(BookSearchCache.class);
+
+    private final AtomicLong generation = new AtomicLong();
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    private Cache<SearchKey, Page<BookDTO>> cache;
+
+    @PostConstruct
+    public void init() {
+        JHipsterProperties.Search.ResultCache properties = jHipsterProperties.getSearch().getResultCache();
+        log.debug("Configuring the search result cache with a maximum of {} bytes", properties.getMaxBytes());
+        cache = Caffeine.newBuilder()
+            .maximumWeight(properties.getMaxBytes())
+            .weigher(BookSearchCache::weigh)
+            .expireAfterWrite(properties.getTimeToLiveInSeconds(), TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Get a page of search results from the cache, or compute it with the loader.
+     *
+     * @param kind the kind of search, as the same query string means different things for different searches
+     * @param query the query of the search
+     * @param pageable the pagination information
+     * @param loader the loader used on a cache miss
+     * @return the page of results
+     */
+    public Page<BookDTO> get(String kind, String query, Pageable pageable, Supplier<Page<BookDTO>> loader) {
+        if (!jHipsterProperties.getSearch().getResultCache().isEnabled()) {
+            return loader.get();
+        }
+        SearchKey key = new SearchKey(kind, normalize(query), pageable, generation.get());
+        return cache.get(key, k -> loader.get());
+    }
+
+    /**
+     * Invalidate all the cached results, once the current transaction (if any) is committed.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        } else {
+            generation.incrementAndGet();
+        }
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> gauges = new HashMap<>();
+        gauges.put("hit-ratio", (Gauge<Double>) () -> cache.stats().hitRate());
+        gauges.put("evictions", (Gauge<Long>) () -> cache.stats().evictionCount());
+        gauges.put("entries", (Gauge<Long>) () -> cache.estimatedSize());
+        gauges.put("bytes", (Gauge<Long>) () -> cache.policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0L))
+            .orElse(0L));
+        gauges.put("generation", (Gauge<Long>) generation::get);
+        return Collections.unmodifiableMap(gauges);
+    }
+
+    static String normalize(String query) {
+        return query == null ? "" : query.trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Rough estimation of the heap used by an entry.
+     */
+    private static int weigh(SearchKey key, Page<BookDTO> page) {
+        long bytes = 96 + 2L * key.query.length();
+        for (BookDTO book : page.getContent()) {
+            bytes += 96 + 2L * length(book.getName()) + 2L * length(book.getAuthor());
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static final class SearchKey {
+
+        private final String kind;
+
+        private final String query;
+
+        private final Pageable pageable;
+
+        private final long generation;
+
+        private SearchKey(String kind, String query, Pageable pageable, long generation) {
+            this.kind = kind;
+            this.query = query;
+            this.pageable = pageable;
+            this.generation = generation;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            SearchKey searchKey = (SearchKey) o;
+            return generation == searchKey.generation &&
+                Objects.equals(kind, searchKey.kind) &&
+                Objects.equals(query, searchKey.query) &&
+                Objects.equals(pageable, searchKey.pageable);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, query, pageable, generation);
+        }
+    }
+}
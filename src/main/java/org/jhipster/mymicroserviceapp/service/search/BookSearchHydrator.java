@@ -0,0 +1,160 @@
+package org.jhipster.mymicroserviceapp.service.search;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties.Search.HydrationMode;
+import org.jhipster.mymicroserviceapp.domain.Book;
+import org.jhipster.mymicroserviceapp.repository.BookRepository;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns Elasticsearch hits into books that are consistent with the database.
+ *
+ * <p>
+ *     In {@link HydrationMode#HYBRID} mode, the {@code _source} of a hit is used as is when its version matches the
+ *     current version of the book. The current books are read from the second-level cache of Hibernate first, and
+ *     the ones it misses are loaded with one batched {@code IN} query, which both checks their version and replaces
+ *     the stale hits (and fills the cache for the next searches).
+ * </p>
+ */
+@Component
+public class BookSearchHydrator {
+
+    private final Logger log = LoggerFactory.getLogger(BookSearchHydrator.class);
+
+    @Inject
+    private BookRepository bookRepository;
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    private EntityManager entityManager;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    private Meter hits;
+
+    private Meter fallbacks;
+
+    @PostConstruct
+    public void init() {
+        hits = metricRegistry.meter(MetricRegistry.name(BookSearchHydrator.class, "hits"));
+        fallbacks = metricRegistry.meter(MetricRegistry.name(BookSearchHydrator.class, "fallbacks"));
+        metricRegistry.register(MetricRegistry.name(BookSearchHydrator.class, "mode"),
+            (Gauge<String>) () -> jHipsterProperties.getSearch().getHydrationMode().name());
+        metricRegistry.register(MetricRegistry.name(BookSearchHydrator.class, "fallback-ratio"), new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                return Ratio.of(fallbacks.getFifteenMinuteRate(), hits.getFifteenMinuteRate());
+            }
+        });
+    }
+
+    /**
+     * Hydrate a page of search hits, according to the configured hydration mode.
+     *
+     * @param page the page of books read from the index
+     * @param pageable the pagination information
+     * @return the page of books to return
+     */
+    public Page<Book> hydrate(Page<Book> page, Pageable pageable) {
+        List<Book> books = page.getContent();
+        if (books.isEmpty()) {
+            return page;
+        }
+        hits.mark(books.size());
+        HydrationMode mode = jHipsterProperties.getSearch().getHydrationMode();
+        List<Book> result;
+        switch (mode) {
+            case INDEX:
+                return page;
+            case DATABASE:
+                result = reload(books, books);
+                break;
+            default:
+                result = hydrateHybrid(books);
+        }
+        return new PageImpl<>(result, pageable, page.getTotalElements());
+    }
+
+    private List<Book> hydrateHybrid(List<Book> books) {
+        Map<Long, Book> current = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Book book : books) {
+            if (entityManagerFactory.getCache().contains(Book.class, book.getId())) {
+                // read from the second-level cache, without a query
+                Book cached = entityManager.find(Book.class, book.getId());
+                if (cached != null) {
+                    current.put(cached.getId(), cached);
+                    continue;
+                }
+            }
+            misses.add(book.getId());
+        }
+        if (!misses.isEmpty()) {
+            for (Book book : bookRepository.findAll(misses)) {
+                current.put(book.getId(), book);
+            }
+        }
+        List<Book> result = new ArrayList<>(books.size());
+        int stale = 0;
+        for (Book book : books) {
+            Book currentBook = current.get(book.getId());
+            if (currentBook == null) {
+                log.debug("Skipping search hit for deleted Book : {}", book.getId());
+            } else if (Objects.equals(currentBook.getVersion(), book.getVersion())) {
+                result.add(book);
+            } else {
+                result.add(currentBook);
+                stale++;
+            }
+        }
+        fallbacks.mark(stale);
+        return result;
+    }
+
+    /**
+     * Replace the given stale books by their database state, keeping the order of the hits.
+     */
+    private List<Book> reload(List<Book> books, List<Book> stale) {
+        fallbacks.mark(stale.size());
+        Map<Long, Book> reloaded = bookRepository.findAll(ids(stale)).stream()
+            .collect(Collectors.toMap(Book::getId, Function.identity()));
+        Set<Long> staleIds = new HashSet<>(ids(stale));
+        List<Book> result = new ArrayList<>(books.size());
+        for (Book book : books) {
+            if (!staleIds.contains(book.getId())) {
+                result.add(book);
+            } else if (reloaded.containsKey(book.getId())) {
+                result.add(reloaded.get(book.getId()));
+            }
+        }
+        return result;
+    }
+
+    private static List<Long> ids(List<Book> books) {
+        return books.stream().map(Book::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Search helpers used by the service layer.
+ */
+package org.jhipster.mymicroserviceapp.service.search;
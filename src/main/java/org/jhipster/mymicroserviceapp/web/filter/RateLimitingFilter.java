@@ -0,0 +1,73 @@
+package org.jhipster.mymicroserviceapp.web.filter;
+
+import org.jhipster.mymicroserviceapp.ratelimit.RateLimiter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.GenericFilterBean;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects the requests of the clients over their rate limit with a 429 status, and a Retry-After header telling
+ * them how many seconds to wait.
+ *
+ * <p>
+ *     This filter runs in the security filter chain after the JWTFilter: the authenticated clients are limited by
+ *     the subject of their token, the other ones by their address.
+ * </p>
+ */
+public class RateLimitingFilter extends GenericFilterBean {
+
+    private final Logger log = LoggerFactory.getLogger(RateLimitingFilter.class);
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitingFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+        throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        RateLimiter.Limit limit = rateLimiter.resolve(request);
+        if (limit != null) {
+            String client = resolveClient(request);
+            long wait = rateLimiter.acquire(limit, client);
+            if (wait > 0) {
+                log.debug("Rate limit of {} exceeded by {}", limit.getName(), client);
+                HttpServletResponse response = (HttpServletResponse) servletResponse;
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(divideRoundingUp(wait, TimeUnit.SECONDS.toMicros(1))));
+                return;
+            }
+        }
+        filterChain.doFilter(servletRequest, servletResponse);
+    }
+
+    private String resolveClient(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() &&
+            !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+
+    private static long divideRoundingUp(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+}
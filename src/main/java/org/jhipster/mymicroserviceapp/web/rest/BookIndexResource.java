@@ -0,0 +1,48 @@
+package org.jhipster.mymicroserviceapp.web.rest;
+
+import org.jhipster.mymicroserviceapp.service.search.BookIndexBulkLoader;
+
+import com.codahale.metrics.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Controller for managing the bulk-load mode of the book index.
+ */
+@RestController
+@RequestMapping("/management")
+public class BookIndexResource {
+
+    private final Logger log = LoggerFactory.getLogger(BookIndexResource.class);
+
+    @Inject
+    private BookIndexBulkLoader bookIndexBulkLoader;
+
+    @GetMapping("/book-index/bulk-load")
+    @Timed
+    public Map<String, Boolean> getBulkLoad() {
+        return Collections.singletonMap("active", bookIndexBulkLoader.isActive());
+    }
+
+    @PutMapping("/book-index/bulk-load")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Timed
+    public void enterBulkLoad() {
+        log.debug("REST request to enter bulk-load mode for the book index");
+        bookIndexBulkLoader.enterFromApi();
+    }
+
+    @DeleteMapping("/book-index/bulk-load")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Timed
+    public void exitBulkLoad() {
+        log.debug("REST request to leave bulk-load mode for the book index");
+        bookIndexBulkLoader.exitFromApi();
+    }
+}
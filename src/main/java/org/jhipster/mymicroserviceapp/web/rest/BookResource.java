@@ -1,6 +1,7 @@
 package org.jhipster.mymicroserviceapp.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import org.jhipster.mymicroserviceapp.cache.BookAccessTracker;
 import org.jhipster.mymicroserviceapp.service.BookService;
 import org.jhipster.mymicroserviceapp.web.rest.util.HeaderUtil;
 import org.jhipster.mymicroserviceapp.web.rest.util.PaginationUtil;
@@ -38,6 +39,9 @@ public class BookResource {
     @Inject
     private BookService bookService;
 
+    @Inject
+    private BookAccessTracker bookAccessTracker;
+
     /**
      * POST  /books : Create a new book.
      *
@@ -107,6 +111,8 @@ public class BookResource {
     @Timed
     public ResponseEntity<BookDTO> getBook(@PathVariable Long id) {
         log.debug("REST request to get Book : {}", id);
+        // recorded here, as the cached reads don't reach the service
+        bookAccessTracker.recordAccess(id);
         BookDTO bookDTO = bookService.findOne(id);
         return Optional.ofNullable(bookDTO)
             .map(result -> new ResponseEntity<>(
@@ -148,5 +154,24 @@ public class BookResource {
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * SEARCH  /_search/books/author?query=:query : search for the books whose author matches the query,
+     * tolerating misspellings.
+     *
+     * @param query the name of the author, possibly misspelled or partial
+     * @param pageable the pagination information
+     * @return the result of the search
+     * @throws URISyntaxException if there is an error to generate the pagination HTTP headers
+     */
+    @GetMapping("/_search/books/author")
+    @Timed
+    public ResponseEntity<List<BookDTO>> searchBooksByAuthor(@RequestParam String query, Pageable pageable)
+        throws URISyntaxException {
+        log.debug("REST request to search for a page of Books for author {}", query);
+        Page<BookDTO> page = bookService.searchByAuthor(query, pageable);
+        HttpHeaders headers = PaginationUtil.generateSearchPaginationHttpHeaders(query, page, "/api/_search/books/author");
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+
 
 }
@@ -0,0 +1,28 @@
+package org.jhipster.mymicroserviceapp.web.rest;
+
+import org.jhipster.mymicroserviceapp.cache.CacheInvalidationBus;
+import org.jhipster.mymicroserviceapp.cache.InvalidationBatch;
+
+import com.codahale.metrics.annotation.Timed;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import javax.inject.Inject;
+
+/**
+ * Controller receiving the cache invalidations broadcast by the other instances of the application.
+ */
+@RestController
+@RequestMapping("/management")
+public class CacheInvalidationResource {
+
+    @Inject
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    @PostMapping("/cache-invalidations")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Timed
+    public void receiveInvalidations(@RequestBody InvalidationBatch batch) {
+        cacheInvalidationBus.receive(batch);
+    }
+}
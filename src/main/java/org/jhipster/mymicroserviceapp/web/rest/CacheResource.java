@@ -0,0 +1,52 @@
+package org.jhipster.mymicroserviceapp.web.rest;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+import org.jhipster.mymicroserviceapp.config.jcache.JCacheStatisticsCollector;
+import org.jhipster.mymicroserviceapp.web.rest.vm.CacheVM;
+
+import com.codahale.metrics.annotation.Timed;
+import org.springframework.web.bind.annotation.*;
+
+import javax.inject.Inject;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Controller for viewing the cache regions which use the most memory.
+ */
+@RestController
+@RequestMapping("/management")
+public class CacheResource {
+
+    @Inject
+    private JCacheStatisticsCollector jCacheStatisticsCollector;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    /**
+     * GET  /caches : get the cache regions, by decreasing estimated size, as of the last collect of the statistics.
+     *
+     * @param top the number of regions to return
+     * @return the list of regions
+     */
+    @GetMapping("/caches")
+    @Timed
+    public List<CacheVM> getCaches(@RequestParam(defaultValue = "10") int top) {
+        Map<String, Long> entries = jCacheStatisticsCollector.getEntries();
+        Map<String, Long> estimatedBytes = jCacheStatisticsCollector.getEstimatedBytes();
+        return estimatedBytes.keySet()
+            .stream()
+            .map(name -> {
+                JHipsterProperties.Cache.Ehcache.Region region = jHipsterProperties.getCache().getEhcache().getRegion(name);
+                return new CacheVM(name, entries.getOrDefault(name, 0L), estimatedBytes.getOrDefault(name, 0L),
+                    region.getHeapMb() != null ? region.getHeapMb() * 1024 * 1024 : null,
+                    region.getHeapMb() == null ? region.getHeapEntries() : null);
+            })
+            .sorted(Comparator.comparingLong(CacheVM::getEstimatedBytes).reversed())
+            .limit(top)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,82 @@
+package org.jhipster.mymicroserviceapp.web.rest.vm;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+/**
+ * View Model object for storing the size of a cache region.
+ */
+public class CacheVM {
+
+    private String name;
+
+    private long entries;
+
+    private long estimatedBytes;
+
+    private Long maxHeapBytes;
+
+    private Long maxHeapEntries;
+
+    public CacheVM(String name, long entries, long estimatedBytes, Long maxHeapBytes, Long maxHeapEntries) {
+        this.name = name;
+        this.entries = entries;
+        this.estimatedBytes = estimatedBytes;
+        this.maxHeapBytes = maxHeapBytes;
+        this.maxHeapEntries = maxHeapEntries;
+    }
+
+    @JsonCreator
+    public CacheVM() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public void setEntries(long entries) {
+        this.entries = entries;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public void setEstimatedBytes(long estimatedBytes) {
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public Long getMaxHeapBytes() {
+        return maxHeapBytes;
+    }
+
+    public void setMaxHeapBytes(Long maxHeapBytes) {
+        this.maxHeapBytes = maxHeapBytes;
+    }
+
+    public Long getMaxHeapEntries() {
+        return maxHeapEntries;
+    }
+
+    public void setMaxHeapEntries(Long maxHeapEntries) {
+        this.maxHeapEntries = maxHeapEntries;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheVM{" +
+            "name='" + name + '\'' +
+            ", entries=" + entries +
+            ", estimatedBytes=" + estimatedBytes +
+            ", maxHeapBytes=" + maxHeapBytes +
+            ", maxHeapEntries=" + maxHeapEntries +
+            '}';
+    }
+}
@@ -0,0 +1,108 @@
+import _root_.io.gatling.core.scenario.Simulation
+import ch.qos.logback.classic.{Level, LoggerContext}
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+import org.slf4j.LoggerFactory
+
+import scala.concurrent.duration._
+
+/**
+ * Performance test comparing the wildcard author queries with the fuzzy author search.
+ *
+ * Run it against an index loaded with a realistic number of books (e.g. 1M), and compare the p99 response times
+ * of the "Wildcard author search" and "Fuzzy author search" requests in the report.
+ *
+ * The queries are generated from random fragments and misspellings of the author names, and the application must be
+ * started with the search result cache disabled (--jhipster.search.resultCache.enabled=false), so that the report
+ * measures the queries rather than the hits of the BookSearchCache.
+ */
+class BookAuthorSearchGatlingTest extends Simulation {
+
+    val context: LoggerContext = LoggerFactory.getILoggerFactory.asInstanceOf[LoggerContext]
+    // Log all HTTP requests
+    //context.getLogger("io.gatling.http").setLevel(Level.valueOf("TRACE"))
+    // Log failed HTTP requests
+    //context.getLogger("io.gatling.http").setLevel(Level.valueOf("DEBUG"))
+
+    val baseURL = Option(System.getProperty("baseURL")) getOrElse """http://127.0.0.1:8080"""
+
+    val httpConf = http
+        .baseURL(baseURL)
+        .inferHtmlResources()
+        .acceptHeader("*/*")
+        .acceptEncodingHeader("gzip, deflate")
+        .acceptLanguageHeader("fr,fr-fr;q=0.8,en-us;q=0.5,en;q=0.3")
+        .connectionHeader("keep-alive")
+        .userAgentHeader("Mozilla/5.0 (Macintosh; Intel Mac OS X 10.10; rv:33.0) Gecko/20100101 Firefox/33.0")
+
+    val headers_http_authentication = Map(
+        "Content-Type" -> """application/json""",
+        "Accept" -> """application/json"""
+    )
+
+    val headers_http_authenticated = Map(
+        "Accept" -> """application/json""",
+        "Authorization" -> "${access_token}"
+    )
+
+    val authorNames = Array("tolkien", "rowling", "pratchett", "asimov", "herbert", "leguin", "gaiman", "martin",
+        "sanderson", "jordan", "heinlein", "bradbury", "clarke", "dick", "atwood", "vonnegut", "orwell", "huxley")
+
+    val letters = "abcdefghijklmnopqrstuvwxyz"
+
+    /** A random fragment of the name, as typed in a wildcard query. */
+    def fragment(name: String): String = {
+        val length = 3 + scala.util.Random.nextInt(name.length - 2)
+        val start = scala.util.Random.nextInt(name.length - length + 1)
+        name.substring(start, start + length)
+    }
+
+    /** The name with one random substitution, deletion or transposition. */
+    def misspell(name: String): String = {
+        val position = scala.util.Random.nextInt(name.length - 1)
+        scala.util.Random.nextInt(3) match {
+            case 0 => name.updated(position, letters.charAt(scala.util.Random.nextInt(letters.length)))
+            case 1 => name.substring(0, position) + name.substring(position + 1)
+            case _ => name.substring(0, position) + name.charAt(position + 1) + name.charAt(position) +
+                name.substring(position + 2)
+        }
+    }
+
+    val authors = Iterator.continually {
+        val name = authorNames(scala.util.Random.nextInt(authorNames.length))
+        Map("wildcard" -> ("*" + fragment(name) + "*"), "misspelled" -> misspell(name))
+    }
+
+    val authentication = exec(http("Authentication")
+        .post("/api/authenticate")
+        .headers(headers_http_authentication)
+        .body(StringBody("""{"username":"admin", "password":"admin"}""")).asJSON
+        .check(header.get("Authorization").saveAs("access_token"))).exitHereIfFailed
+
+    val wildcard = scenario("Wildcard author search")
+        .exec(authentication)
+        .repeat(50) {
+            feed(authors)
+            .exec(http("Wildcard author search")
+            .get("/mymicroserviceapp/api/_search/books?query=author:${wildcard}")
+            .headers(headers_http_authenticated)
+            .check(status.is(200)))
+            .pause(1)
+        }
+
+    val fuzzy = scenario("Fuzzy author search")
+        .exec(authentication)
+        .repeat(50) {
+            feed(authors)
+            .exec(http("Fuzzy author search")
+            .get("/mymicroserviceapp/api/_search/books/author?query=${misspelled}")
+            .headers(headers_http_authenticated)
+            .check(status.is(200)))
+            .pause(1)
+        }
+
+    setUp(
+        wildcard.inject(rampUsers(50) over (1 minutes)),
+        fuzzy.inject(rampUsers(50) over (1 minutes))
+    ).protocols(httpConf)
+}
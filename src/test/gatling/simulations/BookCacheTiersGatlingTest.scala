@@ -0,0 +1,97 @@
+import _root_.io.gatling.core.scenario.Simulation
+import ch.qos.logback.classic.{Level, LoggerContext}
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+import org.slf4j.LoggerFactory
+
+import scala.concurrent.duration._
+
+/**
+ * Performance test comparing the tier configurations of the Book cache region, under a skewed read load.
+ *
+ * The books are read with a Zipf distribution over the ids 1 to -Dbooks (100000 by default), so that a hot set fits
+ * in the heap tier while the long tail spills to the off-heap tier. Run it once per configuration of the region in
+ * "jhipster.cache.ehcache" (e.g. heapEntries: 10000 without off-heap, then heapMb: 64 with offHeapMb: 256), on the
+ * same data and JVM options: the hit ratios of the caches and the time spent in garbage collection, read from the
+ * metrics at the end of the run, are printed next to the response times of the report.
+ */
+class BookCacheTiersGatlingTest extends Simulation {
+
+    val context: LoggerContext = LoggerFactory.getILoggerFactory.asInstanceOf[LoggerContext]
+    // Log all HTTP requests
+    //context.getLogger("io.gatling.http").setLevel(Level.valueOf("TRACE"))
+    // Log failed HTTP requests
+    //context.getLogger("io.gatling.http").setLevel(Level.valueOf("DEBUG"))
+
+    val baseURL = Option(System.getProperty("baseURL")) getOrElse """http://127.0.0.1:8080"""
+
+    val books = Option(System.getProperty("books")).map(_.toInt) getOrElse 100000
+
+    val httpConf = http
+        .baseURL(baseURL)
+        .inferHtmlResources()
+        .acceptHeader("*/*")
+        .acceptEncodingHeader("gzip, deflate")
+        .acceptLanguageHeader("fr,fr-fr;q=0.8,en-us;q=0.5,en;q=0.3")
+        .connectionHeader("keep-alive")
+        .userAgentHeader("Mozilla/5.0 (Macintosh; Intel Mac OS X 10.10; rv:33.0) Gecko/20100101 Firefox/33.0")
+
+    val headers_http_authentication = Map(
+        "Content-Type" -> """application/json""",
+        "Accept" -> """application/json"""
+    )
+
+    val headers_http_authenticated = Map(
+        "Accept" -> """application/json""",
+        "Authorization" -> "${access_token}"
+    )
+
+    val authentication = exec(http("Authentication")
+        .post("/api/authenticate")
+        .headers(headers_http_authentication)
+        .body(StringBody("""{"username":"admin", "password":"admin"}""")).asJSON
+        .check(header.get("Authorization").saveAs("access_token"))).exitHereIfFailed
+
+    /** Cumulative Zipf distribution (exponent 0.9) over the ranks of the books. */
+    val cumulative: Array[Double] = {
+        val weights = (1 to books).map(rank => 1 / math.pow(rank, 0.9)).scanLeft(0.0)(_ + _).tail.toArray
+        weights.map(_ / weights.last)
+    }
+
+    val ids = Iterator.continually {
+        val rank = java.util.Arrays.binarySearch(cumulative, scala.util.Random.nextDouble())
+        Map("id" -> ((if (rank < 0) -rank - 1 else rank) + 1))
+    }
+
+    val readers = scenario("Book reads")
+        .exec(authentication)
+        .repeat(500) {
+            feed(ids)
+            .exec(http("Get book")
+            .get("/mymicroserviceapp/api/books/${id}")
+            .headers(headers_http_authenticated)
+            .check(status.in(200, 404)))
+        }
+
+    val metricsPattern = """"((?:jcache\.statistics\.[^"]*\.hit-ratio)|(?:jvm\.garbage\.[^"]*))"\s*:\s*\{\s*"value"\s*:\s*([0-9.E-]+)""".r
+
+    val metrics = scenario("Cache and GC metrics")
+        .pause(3 minutes)
+        .exec(authentication)
+        .exec(http("Metrics")
+            .get("/mymicroserviceapp/management/metrics")
+            .headers(headers_http_authenticated)
+            .check(status.is(200))
+            .check(bodyString.saveAs("metrics")))
+        .exec(session => {
+            for (metric <- metricsPattern.findAllMatchIn(session("metrics").as[String])) {
+                println(metric.group(1) + " = " + metric.group(2))
+            }
+            session
+        })
+
+    setUp(
+        readers.inject(rampUsers(100) over (1 minutes)),
+        metrics.inject(atOnceUsers(1))
+    ).protocols(httpConf)
+}
@@ -0,0 +1,89 @@
+import _root_.io.gatling.core.scenario.Simulation
+import ch.qos.logback.classic.{Level, LoggerContext}
+import io.gatling.core.Predef._
+import io.gatling.http.Predef._
+import org.slf4j.LoggerFactory
+
+import scala.concurrent.duration._
+
+/**
+ * Performance test of the book listings under a mixed read/write load.
+ *
+ * Run it once with "hibernate.cache.use_query_cache" set to false and once set to true, and compare the response
+ * times of the "List books" requests, and the query cache hit ratio in the Hibernate statistics.
+ */
+class BookListingGatlingTest extends Simulation {
+
+    val context: LoggerContext = LoggerFactory.getILoggerFactory.asInstanceOf[LoggerContext]
+    // Log all HTTP requests
+    //context.getLogger("io.gatling.http").setLevel(Level.valueOf("TRACE"))
+    // Log failed HTTP requests
+    //context.getLogger("io.gatling.http").setLevel(Level.valueOf("DEBUG"))
+
+    val baseURL = Option(System.getProperty("baseURL")) getOrElse """http://127.0.0.1:8080"""
+
+    val httpConf = http
+        .baseURL(baseURL)
+        .inferHtmlResources()
+        .acceptHeader("*/*")
+        .acceptEncodingHeader("gzip, deflate")
+        .acceptLanguageHeader("fr,fr-fr;q=0.8,en-us;q=0.5,en;q=0.3")
+        .connectionHeader("keep-alive")
+        .userAgentHeader("Mozilla/5.0 (Macintosh; Intel Mac OS X 10.10; rv:33.0) Gecko/20100101 Firefox/33.0")
+
+    val headers_http_authentication = Map(
+        "Content-Type" -> """application/json""",
+        "Accept" -> """application/json"""
+    )
+
+    val headers_http_authenticated = Map(
+        "Accept" -> """application/json""",
+        "Authorization" -> "${access_token}"
+    )
+
+    val authentication = exec(http("Authentication")
+        .post("/api/authenticate")
+        .headers(headers_http_authentication)
+        .body(StringBody("""{"username":"admin", "password":"admin"}""")).asJSON
+        .check(header.get("Authorization").saveAs("access_token"))).exitHereIfFailed
+
+    val pages = Array(
+        Map("page" -> "0"),
+        Map("page" -> "0"),
+        Map("page" -> "0"),
+        Map("page" -> "1"),
+        Map("page" -> "2")
+    ).random
+
+    val readers = scenario("Book listings")
+        .exec(authentication)
+        .repeat(100) {
+            feed(pages)
+            .exec(http("List books")
+            .get("/mymicroserviceapp/api/books?page=${page}&size=20")
+            .headers(headers_http_authenticated)
+            .check(status.is(200)))
+            .pause(100 milliseconds, 500 milliseconds)
+        }
+
+    val writers = scenario("Book writes")
+        .exec(authentication)
+        .repeat(10) {
+            exec(http("Create new book")
+            .post("/mymicroserviceapp/api/books")
+            .headers(headers_http_authenticated)
+            .body(StringBody("""{"id":null, "name":"SAMPLE_TEXT", "publishDate":"2020-01-01T00:00:00.000Z", "author":"SAMPLE_TEXT"}""")).asJSON
+            .check(status.is(201))
+            .check(headerRegex("Location", "(.*)").saveAs("new_book_url"))).exitHereIfFailed
+            .pause(5)
+            .exec(http("Delete created book")
+            .delete("/mymicroserviceapp${new_book_url}")
+            .headers(headers_http_authenticated))
+            .pause(5)
+        }
+
+    setUp(
+        readers.inject(rampUsers(100) over (1 minutes)),
+        writers.inject(rampUsers(5) over (1 minutes))
+    ).protocols(httpConf)
+}
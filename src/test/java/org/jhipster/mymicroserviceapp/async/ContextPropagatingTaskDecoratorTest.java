@@ -0,0 +1,74 @@
+package org.jhipster.mymicroserviceapp.async;
+
+import org.jhipster.mymicroserviceapp.security.SecurityUtils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.MDC;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the ContextPropagatingTaskDecorator.
+ *
+ * @see ContextPropagatingTaskDecorator
+ */
+public class ContextPropagatingTaskDecoratorTest {
+
+    private ThreadPoolTaskExecutor executor;
+
+    @Before
+    public void setup() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        executor.initialize();
+    }
+
+    @After
+    public void cleanup() {
+        executor.shutdown();
+        SecurityContextHolder.clearContext();
+        MDC.clear();
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    @Test
+    public void tasksRunWithTheContextsOfTheSubmittingThread() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("alice", "token", Collections.emptyList()));
+        MDC.put("request", "42");
+        LocaleContextHolder.setLocale(Locale.FRENCH);
+
+        String contexts = executor.submit(() ->
+            SecurityUtils.getCurrentUserLogin() + " " + MDC.get("request") + " " + LocaleContextHolder.getLocale())
+            .get(10, TimeUnit.SECONDS);
+
+        assertThat(contexts).isEqualTo("alice 42 fr");
+    }
+
+    @Test
+    public void contextsDoNotLeakToTheNextTasks() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("alice", "token", Collections.emptyList()));
+        MDC.put("request", "42");
+        executor.submit(() -> { }).get(10, TimeUnit.SECONDS);
+        SecurityContextHolder.clearContext();
+        MDC.clear();
+
+        String contexts = executor.submit(() -> SecurityUtils.getCurrentUserLogin() + " " + MDC.get("request"))
+            .get(10, TimeUnit.SECONDS);
+
+        assertThat(contexts).isEqualTo("null null");
+    }
+}
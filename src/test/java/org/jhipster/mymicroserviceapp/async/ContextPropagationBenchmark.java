@@ -0,0 +1,86 @@
+package org.jhipster.mymicroserviceapp.async;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.MDC;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the overhead of the ContextPropagatingTaskDecorator, against the plain submission of the tasks, from
+ * a thread with a security context, an MDC and a locale.
+ *
+ * <p>Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.jhipster.mymicroserviceapp.async.ContextPropagationBenchmark</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextPropagationBenchmark {
+
+    private final ContextPropagatingTaskDecorator decorator = new ContextPropagatingTaskDecorator();
+
+    private final Runnable task = () -> { };
+
+    private ThreadPoolTaskExecutor plainExecutor;
+
+    private ThreadPoolTaskExecutor propagatingExecutor;
+
+    @Setup
+    public void setup() {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("user", "token", Collections.emptyList()));
+        MDC.put("request", "42");
+        LocaleContextHolder.setLocale(Locale.FRENCH);
+        plainExecutor = executor(null);
+        propagatingExecutor = executor(decorator);
+    }
+
+    @TearDown
+    public void tearDown() {
+        plainExecutor.shutdown();
+        propagatingExecutor.shutdown();
+    }
+
+    private static ThreadPoolTaskExecutor executor(ContextPropagatingTaskDecorator decorator) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setTaskDecorator(decorator);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * The cost of capturing the contexts, and of installing then restoring them around the task.
+     */
+    @Benchmark
+    public void decorateAndRun() {
+        decorator.decorate(task).run();
+    }
+
+    @Benchmark
+    public Object plainSubmission() throws InterruptedException, ExecutionException {
+        return plainExecutor.submit(task).get();
+    }
+
+    @Benchmark
+    public Object propagatingSubmission() throws InterruptedException, ExecutionException {
+        return propagatingExecutor.submit(task).get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ContextPropagationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,60 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the BookAccessTracker.
+ *
+ * @see BookAccessTracker
+ */
+public class BookAccessTrackerTest {
+
+    private BookAccessTracker bookAccessTracker;
+
+    @Before
+    public void setup() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getWarmup().setEnabled(true);
+        jHipsterProperties.getCache().getWarmup().setSize(2);
+        bookAccessTracker = new BookAccessTracker();
+        ReflectionTestUtils.setField(bookAccessTracker, "jHipsterProperties", jHipsterProperties);
+        bookAccessTracker.init();
+    }
+
+    @Test
+    public void hottestAreTheMostReadBooks() {
+        read(1L, 1);
+        read(2L, 5);
+        read(3L, 3);
+
+        assertThat(bookAccessTracker.hottest(2)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    public void decayMakesRoomForNewBooks() {
+        // 4 times the warm-up size are counted
+        for (long id = 1; id <= 8; id++) {
+            read(id, (int) id);
+        }
+        read(9L, 100);
+        assertThat(bookAccessTracker.hottest(10)).doesNotContain(9L);
+
+        bookAccessTracker.decay();
+        assertThat(bookAccessTracker.hottest(10)).containsOnly(8L, 7L, 6L, 5L);
+
+        read(9L, 100);
+        assertThat(bookAccessTracker.hottest(1)).containsExactly(9L);
+    }
+
+    private void read(Long id, int times) {
+        for (int i = 0; i < times; i++) {
+            bookAccessTracker.recordAccess(id);
+        }
+    }
+}
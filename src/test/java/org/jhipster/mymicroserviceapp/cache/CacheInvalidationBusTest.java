@@ -0,0 +1,152 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the CacheInvalidationBus, with three instances in the same JVM.
+ *
+ * @see CacheInvalidationBus
+ */
+public class CacheInvalidationBusTest {
+
+    private static final String REGION = "org.jhipster.mymicroserviceapp.domain.Book";
+
+    private JHipsterProperties.Cache.Invalidation properties;
+
+    private LocalCacheInvalidationTransport transport;
+
+    private List<RecordingEvictor> evictors;
+
+    private List<MetricRegistry> metricRegistries;
+
+    private List<CacheInvalidationBus> buses;
+
+    @Before
+    public void setup() {
+        properties = new JHipsterProperties.Cache.Invalidation();
+        properties.setQueueCapacity(4);
+        properties.setMaxBatchSize(2);
+        transport = new LocalCacheInvalidationTransport();
+        evictors = new ArrayList<>();
+        metricRegistries = new ArrayList<>();
+        buses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            RecordingEvictor evictor = new RecordingEvictor();
+            MetricRegistry metricRegistry = new MetricRegistry();
+            CacheInvalidationBus bus = new CacheInvalidationBus("node-" + i, transport, evictor, properties, metricRegistry);
+            transport.register(bus);
+            evictors.add(evictor);
+            metricRegistries.add(metricRegistry);
+            buses.add(bus);
+        }
+    }
+
+    @Test
+    public void broadcastToPeers() {
+        buses.get(0).publish(REGION, 1L);
+        buses.get(0).flush();
+
+        assertThat(evictors.get(0).evicted).isEmpty();
+        assertThat(evictors.get(1).evicted).containsExactly(REGION + "#1");
+        assertThat(evictors.get(2).evicted).containsExactly(REGION + "#1");
+        assertThat(metricRegistries.get(1).histogram(MetricRegistry.name(CacheInvalidationBus.class, "lag")).getCount())
+            .isEqualTo(1);
+    }
+
+    @Test
+    public void sendByBatches() {
+        for (long id = 1; id <= 3; id++) {
+            buses.get(1).publish(REGION, id);
+        }
+
+        assertThat(buses.get(1).flush()).isEqualTo(2);
+        assertThat(buses.get(1).flush()).isEqualTo(0);
+        assertThat(evictors.get(0).batches).isEqualTo(2);
+        assertThat(evictors.get(0).evicted).containsExactly(REGION + "#1", REGION + "#2", REGION + "#3");
+        assertThat(evictors.get(1).batches).isEqualTo(0);
+    }
+
+    @Test
+    public void evictAllWhenTheQueueOverflows() {
+        for (long id = 1; id <= 6; id++) {
+            buses.get(2).publish(REGION, id);
+        }
+
+        assertThat(buses.get(2).flush()).isEqualTo(1);
+        assertThat(evictors.get(0).evictAll).isEqualTo(1);
+        assertThat(evictors.get(0).evicted).isEmpty();
+        assertThat(evictors.get(1).evictAll).isEqualTo(1);
+        assertThat(evictors.get(2).evictAll).isEqualTo(0);
+        assertThat(metricRegistries.get(2).meter(MetricRegistry.name(CacheInvalidationBus.class, "drops")).getCount())
+            .isEqualTo(6);
+
+        buses.get(2).publish(REGION, 7L);
+        buses.get(2).flush();
+        assertThat(evictors.get(0).evicted).containsExactly(REGION + "#7");
+    }
+
+    @Test
+    public void evictAllAfterAFailedSend() {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        MetricRegistry metricRegistry = new MetricRegistry();
+        CacheInvalidationBus bus = new CacheInvalidationBus("node-3", batch -> {
+            if (failing.get()) {
+                throw new IllegalStateException("No signing key to create a token");
+            }
+            transport.send(batch);
+        }, new RecordingEvictor(), properties, metricRegistry);
+        for (long id = 1; id <= 3; id++) {
+            bus.publish(REGION, id);
+        }
+
+        assertThat(bus.flush()).isEqualTo(0);
+        assertThat(metricRegistry.meter(MetricRegistry.name(CacheInvalidationBus.class, "drops")).getCount())
+            .isEqualTo(2);
+
+        failing.set(false);
+        assertThat(bus.flush()).isEqualTo(1);
+        assertThat(evictors.get(0).evictAll).isEqualTo(1);
+        assertThat(evictors.get(0).evicted).isEmpty();
+        assertThat(metricRegistry.meter(MetricRegistry.name(CacheInvalidationBus.class, "drops")).getCount())
+            .isEqualTo(3);
+    }
+
+    @Test
+    public void doNothingWhenDisabled() {
+        properties.setEnabled(false);
+        buses.get(0).publish(REGION, 1L);
+
+        assertThat(buses.get(0).flush()).isEqualTo(0);
+        assertThat(evictors.get(1).evicted).isEmpty();
+    }
+
+    private static class RecordingEvictor implements CacheEvictor {
+
+        private final List<String> evicted = new ArrayList<>();
+
+        private int batches;
+
+        private int evictAll;
+
+        @Override
+        public void evict(List<InvalidationBatch.Invalidation> invalidations) {
+            batches++;
+            invalidations.forEach(invalidation -> evicted.add(invalidation.toString()));
+        }
+
+        @Override
+        public void evictAll() {
+            evictAll++;
+        }
+    }
+}
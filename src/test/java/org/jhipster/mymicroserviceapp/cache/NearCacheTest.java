@@ -0,0 +1,171 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the NearCache, with three instances sharing an in-memory tier, or a JCache tier on an in-process
+ * Ehcache.
+ *
+ * @see NearCache
+ */
+public class NearCacheTest {
+
+    private static final String NAME = "booksById";
+
+    private static final String EHCACHE_PROVIDER = "org.ehcache.jsr107.EhcacheCachingProvider";
+
+    private SharedCacheStore store;
+
+    private List<MetricRegistry> metricRegistries;
+
+    @Before
+    public void setup() {
+        store = new InMemorySharedCacheStore(10000, 3600000);
+        metricRegistries = new ArrayList<>();
+    }
+
+    @Test
+    public void writesAreSeenByTheOtherNodesOnRevalidation() {
+        List<NearCache> nodes = nodes(100, 0);
+
+        nodes.get(0).put(1L, "first");
+        assertThat(nodes.get(1).get(1L).get()).isEqualTo("first");
+        assertThat(nodes.get(2).get(1L).get()).isEqualTo("first");
+
+        nodes.get(1).put(1L, "second");
+        assertThat(nodes.get(0).get(1L).get()).isEqualTo("second");
+        assertThat(nodes.get(2).get(1L).get()).isEqualTo("second");
+
+        nodes.get(2).evict(1L);
+        assertThat(nodes.get(0).get(1L)).isNull();
+        assertThat(nodes.get(1).get(1L)).isNull();
+    }
+
+    @Test
+    public void staleCopiesAreServedUntilRevalidatedOrEvicted() {
+        List<NearCache> nodes = nodes(100, 3600000);
+
+        nodes.get(0).put(1L, "first");
+        assertThat(nodes.get(1).get(1L).get()).isEqualTo("first");
+        nodes.get(0).put(1L, "second");
+
+        assertThat(nodes.get(1).get(1L).get()).isEqualTo("first");
+        nodes.get(1).evictLocal(1L);
+        assertThat(nodes.get(1).get(1L).get()).isEqualTo("second");
+        assertThat(nodes.get(2).get(1L).get()).isEqualTo("second");
+    }
+
+    @Test
+    public void unchangedCopiesAreRevalidatedWithoutFetchingThem() {
+        List<NearCache> nodes = nodes(100, 0);
+
+        nodes.get(0).put(1L, "first");
+        for (int i = 0; i < 10; i++) {
+            assertThat(nodes.get(1).get(1L).get()).isEqualTo("first");
+        }
+
+        assertThat(meterCount(1, "shared-hits")).isEqualTo(1);
+        assertThat(meterCount(1, "revalidations")).isEqualTo(9);
+    }
+
+    @Test
+    public void hotSetIsLoadedOnceForAllTheNodes() {
+        List<NearCache> nodes = nodes(200, 1000);
+        AtomicInteger loads = new AtomicInteger();
+        Set<Long> keys = new HashSet<>();
+        Random random = new Random(42);
+        int reads = 30000;
+
+        for (int i = 0; i < reads; i++) {
+            // skewed towards the small ids, over 1000 ids
+            long key = (long) (Math.pow(random.nextDouble(), 4) * 1000);
+            keys.add(key);
+            Object value = nodes.get(i % nodes.size()).get(key, () -> {
+                loads.incrementAndGet();
+                return "book-" + key;
+            });
+            assertThat(value).isEqualTo("book-" + key);
+        }
+
+        long nearHits = 0;
+        for (int node = 0; node < nodes.size(); node++) {
+            nearHits += meterCount(node, "near-hits");
+        }
+        assertThat(loads.get()).isEqualTo(keys.size());
+        assertThat((double) nearHits / reads).isGreaterThan(0.5);
+    }
+
+    @Test
+    public void concurrentPutsLeaveTheLastValueWithItsVersion() throws Exception {
+        CachingProvider provider = Caching.getCachingProvider(EHCACHE_PROVIDER);
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), provider.getDefaultClassLoader());
+        store = new JCacheSharedCacheStore(cacheManager, 3600);
+        try {
+            List<NearCache> nodes = nodes(100, 0);
+            int writers = 8;
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(writers);
+            try {
+                List<Future<?>> results = new ArrayList<>();
+                for (int i = 0; i < writers; i++) {
+                    NearCache node = nodes.get(i % nodes.size());
+                    int writer = i;
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        for (int j = 0; j < 500; j++) {
+                            node.put(1L, "book-" + writer + "-" + j);
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> result : results) {
+                    result.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            SharedCacheStore.Versioned current = store.get(NAME, 1L);
+            assertThat(store.version(NAME, 1L)).isEqualTo(current.getVersion());
+            for (NearCache node : nodes) {
+                assertThat(node.get(1L).get()).isEqualTo(current.getValue());
+            }
+        } finally {
+            store.close();
+        }
+    }
+
+    private List<NearCache> nodes(long maximumSize, long revalidateAfterInMillis) {
+        List<NearCache> nodes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            MetricRegistry metricRegistry = new MetricRegistry();
+            metricRegistries.add(metricRegistry);
+            nodes.add(new NearCache(NAME, store, maximumSize, revalidateAfterInMillis, metricRegistry));
+        }
+        return nodes;
+    }
+
+    private long meterCount(int node, String meter) {
+        return metricRegistries.get(node).meter(MetricRegistry.name(NearCache.class, NAME, meter)).getCount();
+    }
+}
@@ -0,0 +1,115 @@
+package org.jhipster.mymicroserviceapp.cache;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the SingleFlightCache.
+ *
+ * @see SingleFlightCache
+ */
+public class SingleFlightCacheTest {
+
+    private static final String NAME = "booksById";
+
+    private List<Runnable> refreshes;
+
+    private MetricRegistry metricRegistry;
+
+    @Before
+    public void setup() {
+        refreshes = new ArrayList<>();
+        metricRegistry = new MetricRegistry();
+    }
+
+    @Test
+    public void concurrentMissesLoadOnce() throws Exception {
+        SingleFlightCache cache = cache(3600000, 0);
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get(1L, () -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    release.await();
+                    return "book";
+                })));
+            }
+            assertThat(loading.await(10, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("book");
+            }
+            assertThat(loads.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void earlyRefreshReturnsTheCurrentValue() {
+        SingleFlightCache cache = cache(3600000, 1e15);
+        assertThat(cache.get(1L, () -> "first")).isEqualTo("first");
+
+        assertThat(cache.get(1L, () -> "second")).isEqualTo("first");
+        assertThat(cache.get(1L, () -> "third")).isEqualTo("first");
+        assertThat(refreshes).hasSize(1);
+
+        refreshes.remove(0).run();
+        assertThat(cache.get(1L).get()).isEqualTo("second");
+        assertThat(metricRegistry.meter(
+            MetricRegistry.name(SingleFlightCache.class, NAME, "early-refreshes")).getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void putValuesAreNotRefreshedEarly() {
+        SingleFlightCache cache = cache(3600000, 1e15);
+        cache.put(1L, "first");
+
+        assertThat(cache.get(1L, () -> "second")).isEqualTo("first");
+        assertThat(refreshes).isEmpty();
+    }
+
+    @Test
+    public void expiredEntriesAreReloaded() {
+        SingleFlightCache cache = cache(0, 0);
+        cache.put(1L, "first");
+        assertThat(cache.get(1L)).isNull();
+
+        assertThat(cache.get(1L, () -> "second")).isEqualTo("second");
+        assertThat(cache.get(1L, () -> "third")).isEqualTo("third");
+    }
+
+    @Test
+    public void nullValuesAreNotCached() {
+        SingleFlightCache cache = cache(3600000, 0);
+        assertThat(cache.get(1L, () -> null)).isNull();
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(1L, () -> "book")).isEqualTo("book");
+    }
+
+    private SingleFlightCache cache(long timeToLiveInMillis, double beta) {
+        return new SingleFlightCache(new ConcurrentMapCache(NAME), timeToLiveInMillis, beta, refreshes::add,
+            metricRegistry);
+    }
+}
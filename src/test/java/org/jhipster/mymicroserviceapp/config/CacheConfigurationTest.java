@@ -0,0 +1,93 @@
+package org.jhipster.mymicroserviceapp.config;
+
+import org.jhipster.mymicroserviceapp.domain.Book;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the creation of the cache regions, with a Caffeine cache manager.
+ *
+ * @see CacheConfiguration.CacheRegionsConfiguration
+ */
+public class CacheConfigurationTest {
+
+    private static final String CAFFEINE_PROVIDER = "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+
+    private JHipsterProperties jHipsterProperties;
+
+    private CacheConfiguration.CacheRegionsConfiguration cacheRegionsConfiguration;
+
+    private CacheManager cacheManager;
+
+    @Before
+    public void setup() throws Exception {
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getEhcache().setMaxBytesLocalHeap("64M");
+        cacheRegionsConfiguration = new CacheConfiguration.CacheRegionsConfiguration();
+        ReflectionTestUtils.setField(cacheRegionsConfiguration, "jHipsterProperties", jHipsterProperties);
+        cacheManager = Caching.getCachingProvider(CAFFEINE_PROVIDER)
+            .getCacheManager(new URI("cache-configuration-test"), getClass().getClassLoader());
+    }
+
+    @After
+    public void cleanup() {
+        cacheManager.close();
+    }
+
+    @Test
+    public void regionsWithinTheHeapBudgetAreWeighed() {
+        addRegion(Book.class.getName(), 48L);
+
+        cacheRegionsConfiguration.cacheManagerCustomizer().customize(cacheManager);
+
+        @SuppressWarnings("unchecked")
+        CaffeineConfiguration<Object, Object> configuration = cacheManager.getCache(Book.class.getName())
+            .getConfiguration(CaffeineConfiguration.class);
+        assertThat(configuration.getMaximumWeight().getAsLong()).isEqualTo(48L * 1024 * 1024);
+        assertThat(configuration.getWeigherFactory().isPresent()).isTrue();
+    }
+
+    @Test
+    public void regionsOverTheHeapBudgetFailTheStartup() {
+        addRegion(Book.class.getName(), 48L);
+        addRegion("books-by-author", 32L);
+
+        assertThatThrownBy(() -> cacheRegionsConfiguration.cacheManagerCustomizer().customize(cacheManager))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("maxBytesLocalHeap");
+    }
+
+    @Test
+    public void hibernateQueryRegionsAreBounded() {
+        cacheRegionsConfiguration.cacheManagerCustomizer().customize(cacheManager);
+
+        @SuppressWarnings("unchecked")
+        CaffeineConfiguration<Object, Object> timestamps = cacheManager
+            .getCache("org.hibernate.cache.spi.UpdateTimestampsCache").getConfiguration(CaffeineConfiguration.class);
+        assertThat(timestamps.getMaximumSize().getAsLong()).isEqualTo(1000);
+        assertThat(timestamps.getExpireAfterWrite().isPresent()).isFalse();
+        @SuppressWarnings("unchecked")
+        CaffeineConfiguration<Object, Object> queries = cacheManager
+            .getCache("org.hibernate.cache.internal.StandardQueryCache").getConfiguration(CaffeineConfiguration.class);
+        assertThat(queries.getMaximumSize().getAsLong()).isEqualTo(100);
+        assertThat(queries.getExpireAfterWrite().isPresent()).isTrue();
+    }
+
+    private void addRegion(String name, Long heapMb) {
+        JHipsterProperties.Cache.Ehcache.Region region = new JHipsterProperties.Cache.Ehcache.Region();
+        region.setName(name);
+        region.setHeapMb(heapMb);
+        jHipsterProperties.getCache().getEhcache().getRegions().add(region);
+    }
+}
@@ -0,0 +1,75 @@
+package org.jhipster.mymicroserviceapp.config;
+
+import org.jhipster.mymicroserviceapp.MymicroserviceappApp;
+import org.jhipster.mymicroserviceapp.security.BypassRequestMatcher;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import javax.inject.Inject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test class for the security fast path of the probes.
+ *
+ * @see MicroserviceSecurityConfiguration
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = MymicroserviceappApp.class, properties = {
+    "jhipster.security.bypassPaths[0]=/management/health",
+    "jhipster.security.bypassPaths[1]=/management/info"
+})
+public class MicroserviceSecurityConfigurationIntTest {
+
+    @Inject
+    private WebApplicationContext context;
+
+    @Inject
+    private FilterChainProxy springSecurityFilterChain;
+
+    @Inject
+    private MetricRegistry metricRegistry;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    public void probesSkipTheSecurityFilters() throws Exception {
+        assertThat(springSecurityFilterChain.getFilters("/management/health")).isEmpty();
+        assertThat(springSecurityFilterChain.getFilters("/management/env")).isNotEmpty();
+        assertThat(springSecurityFilterChain.getFilters("/api/books")).isNotEmpty();
+
+        long before = bypassed();
+        mockMvc.perform(get("/management/info")).andExpect(status().isOk());
+
+        assertThat(bypassed()).isEqualTo(before + 1);
+    }
+
+    @Test
+    public void otherRequestsAreStillSecured() throws Exception {
+        // rejected by the authorization of the /management paths, as no token is sent
+        mockMvc.perform(get("/management/env")).andExpect(status().is4xxClientError());
+        mockMvc.perform(post("/management/info")).andExpect(status().is4xxClientError());
+    }
+
+    private long bypassed() {
+        return metricRegistry.meter(MetricRegistry.name(BypassRequestMatcher.class, "bypassed")).getCount();
+    }
+}
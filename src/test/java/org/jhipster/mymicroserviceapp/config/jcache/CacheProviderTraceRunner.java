@@ -0,0 +1,113 @@
+package org.jhipster.mymicroserviceapp.config.jcache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.Configuration;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Random;
+
+/**
+ * Replays an access trace on a Book region of each JCache provider, and compares their hit ratios.
+ *
+ * <p>
+ *     The default trace is a daytime Zipf distribution over the books, interrupted by a nightly export scanning all
+ *     of them. A recorded trace (one book id per line) can be replayed instead with -Dtrace.file=...
+ * </p>
+ *
+ * <p>
+ *     This is a manual runner rather than a unit test, as the hit ratios depend on the trace. Run with:
+ *     ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=org.jhipster.mymicroserviceapp.config.jcache.CacheProviderTraceRunner
+ * </p>
+ */
+public class CacheProviderTraceRunner {
+
+    private static final String EHCACHE_PROVIDER = "org.ehcache.jsr107.EhcacheCachingProvider";
+
+    private static final String CAFFEINE_PROVIDER = "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+
+    private static final int CACHE_SIZE = 1000;
+
+    private static final int BOOKS = 50000;
+
+    private static final int DAYTIME_ACCESSES = 200000;
+
+    public static void main(String[] args) throws IOException {
+        long[] trace = trace();
+
+        double ehcache = replay(EHCACHE_PROVIDER, Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Long.class, Long.class,
+                ResourcePoolsBuilder.heap(CACHE_SIZE)).build()), trace);
+        CaffeineConfiguration<Long, Long> caffeineConfiguration = new CaffeineConfiguration<>();
+        caffeineConfiguration.setTypes(Long.class, Long.class);
+        caffeineConfiguration.setMaximumSize(OptionalLong.of(CACHE_SIZE));
+        double caffeine = replay(CAFFEINE_PROVIDER, caffeineConfiguration, trace);
+
+        System.out.printf("Hit ratios over %d accesses: Ehcache %.3f, Caffeine %.3f%n", trace.length, ehcache, caffeine);
+    }
+
+    private static double replay(String provider, Configuration<Long, Long> configuration, long[] trace) {
+        CacheManager cacheManager = Caching.getCachingProvider(provider).getCacheManager();
+        try {
+            Cache<Long, Long> cache = cacheManager.createCache("trace", configuration);
+            long hits = 0;
+            for (long id : trace) {
+                if (cache.get(id) != null) {
+                    hits++;
+                } else {
+                    cache.put(id, id);
+                }
+            }
+            return (double) hits / trace.length;
+        } finally {
+            cacheManager.destroyCache("trace");
+            cacheManager.close();
+        }
+    }
+
+    private static long[] trace() throws IOException {
+        String file = System.getProperty("trace.file");
+        if (file != null) {
+            List<String> lines = Files.readAllLines(Paths.get(file));
+            return lines.stream().map(String::trim).filter(line -> !line.isEmpty()).mapToLong(Long::parseLong).toArray();
+        }
+        Random random = new Random(42);
+        double[] cumulative = zipf(BOOKS, 0.9);
+        List<Long> trace = new ArrayList<>();
+        for (int day = 0; day < 2; day++) {
+            for (int i = 0; i < DAYTIME_ACCESSES; i++) {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+                trace.add((long) (rank < 0 ? -rank - 1 : rank));
+            }
+            for (long id = 0; id < BOOKS; id++) {
+                trace.add(id);
+            }
+        }
+        return trace.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static double[] zipf(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= sum;
+        }
+        return cumulative;
+    }
+}
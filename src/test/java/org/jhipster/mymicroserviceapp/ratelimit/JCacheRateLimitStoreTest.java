@@ -0,0 +1,130 @@
+package org.jhipster.mymicroserviceapp.ratelimit;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the JCacheRateLimitStore, with an in-process Ehcache standing in for the clustered cache manager.
+ *
+ * @see JCacheRateLimitStore
+ */
+public class JCacheRateLimitStoreTest {
+
+    private static final String EHCACHE_PROVIDER = "org.ehcache.jsr107.EhcacheCachingProvider";
+
+    private static final long SECOND = TimeUnit.SECONDS.toMicros(1);
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toMicros(1));
+
+    private List<JHipsterProperties.RateLimiting.Group> groups;
+
+    private CacheManager cacheManager;
+
+    private JCacheRateLimitStore store;
+
+    private RateLimiter rateLimiter;
+
+    @Before
+    public void setup() {
+        JHipsterProperties.RateLimiting.Group group = new JHipsterProperties.RateLimiting.Group();
+        group.setName("api");
+        group.setPaths(Collections.singletonList("/api/**"));
+        group.setRequestsPerSecond(2);
+        group.setBurst(100);
+        groups = Collections.singletonList(group);
+        CachingProvider provider = Caching.getCachingProvider(EHCACHE_PROVIDER);
+        cacheManager = provider.getCacheManager(provider.getDefaultURI(), provider.getDefaultClassLoader());
+        store = new JCacheRateLimitStore(cacheManager, RateLimiter.retentionInMicros(groups));
+        rateLimiter = newRateLimiter(store);
+    }
+
+    @After
+    public void cleanup() {
+        cacheManager.destroyCache(JCacheRateLimitStore.CACHE_NAME);
+        store.close();
+    }
+
+    @Test
+    public void burstIsAllowedThenRefilledAtTheSustainedRate() {
+        RateLimiter.Limit api = rateLimiter.resolve(request("/api/books"));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(rateLimiter.acquire(api, "user:alice")).isZero();
+        }
+        assertThat(rateLimiter.acquire(api, "user:alice")).isEqualTo(SECOND / 2);
+        assertThat(rateLimiter.acquire(api, "user:bob")).isZero();
+
+        clock.addAndGet(SECOND / 2);
+        assertThat(rateLimiter.acquire(api, "user:alice")).isZero();
+        assertThat(rateLimiter.acquire(api, "user:alice")).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    public void instancesSharingTheCacheManagerShareTheLimits() {
+        RateLimiter other = newRateLimiter(new JCacheRateLimitStore(cacheManager, RateLimiter.retentionInMicros(groups)));
+        RateLimiter.Limit api = rateLimiter.resolve(request("/api/books"));
+
+        for (int i = 0; i < 50; i++) {
+            assertThat(rateLimiter.acquire(api, "user:alice")).isZero();
+            assertThat(other.acquire(other.resolve(request("/api/books")), "user:alice")).isZero();
+        }
+        assertThat(rateLimiter.acquire(api, "user:alice")).isPositive();
+        assertThat(other.acquire(other.resolve(request("/api/books")), "user:alice")).isPositive();
+    }
+
+    @Test
+    public void concurrentRequestsNeverExceedTheBurst() throws Exception {
+        RateLimiter.Limit api = rateLimiter.resolve(request("/api/books"));
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            // each thread stands for an instance, with its own store on the shared cache manager
+            RateLimiter instance = newRateLimiter(new JCacheRateLimitStore(cacheManager,
+                RateLimiter.retentionInMicros(groups)));
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    if (instance.acquire(api, "user:alice") == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(allowed.get()).isEqualTo(100);
+    }
+
+    private RateLimiter newRateLimiter(RateLimitStore store) {
+        return new RateLimiter(groups, store, clock::get, new MetricRegistry());
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
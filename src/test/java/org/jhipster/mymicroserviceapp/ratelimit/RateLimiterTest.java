@@ -0,0 +1,134 @@
+package org.jhipster.mymicroserviceapp.ratelimit;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the RateLimiter, with the in-memory store standing in for the store shared by the instances.
+ *
+ * @see RateLimiter
+ */
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toMicros(1);
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toMicros(1));
+
+    private List<JHipsterProperties.RateLimiting.Group> groups;
+
+    private LocalRateLimitStore store;
+
+    private RateLimiter rateLimiter;
+
+    @Before
+    public void setup() {
+        groups = Arrays.asList(group("search", "/api/_search/**", 2, 3), group("api", "/api/**", 100, 100));
+        store = new LocalRateLimitStore(1000, RateLimiter.retentionInMicros(groups));
+        rateLimiter = newRateLimiter(store);
+    }
+
+    @Test
+    public void requestsAreLimitedByTheirGroup() {
+        assertThat(rateLimiter.resolve(request("/api/_search/books")).getName()).isEqualTo("search");
+        assertThat(rateLimiter.resolve(request("/api/books/1")).getName()).isEqualTo("api");
+        assertThat(rateLimiter.resolve(request("/management/health"))).isNull();
+    }
+
+    @Test
+    public void burstIsAllowedThenRefilledAtTheSustainedRate() {
+        RateLimiter.Limit search = rateLimiter.resolve(request("/api/_search/books"));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.acquire(search, "user:alice")).isZero();
+        }
+        assertThat(rateLimiter.acquire(search, "user:alice")).isEqualTo(SECOND / 2);
+
+        clock.addAndGet(SECOND / 2);
+        assertThat(rateLimiter.acquire(search, "user:alice")).isZero();
+        assertThat(rateLimiter.acquire(search, "user:alice")).isEqualTo(SECOND / 2);
+    }
+
+    @Test
+    public void clientsAndGroupsHaveTheirOwnBuckets() {
+        RateLimiter.Limit search = rateLimiter.resolve(request("/api/_search/books"));
+        RateLimiter.Limit api = rateLimiter.resolve(request("/api/books"));
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire(search, "user:alice");
+        }
+
+        assertThat(rateLimiter.acquire(search, "user:alice")).isPositive();
+        assertThat(rateLimiter.acquire(search, "user:bob")).isZero();
+        assertThat(rateLimiter.acquire(api, "user:alice")).isZero();
+    }
+
+    @Test
+    public void instancesSharingAStoreShareTheLimits() {
+        RateLimiter other = newRateLimiter(store);
+        RateLimiter.Limit search = rateLimiter.resolve(request("/api/_search/books"));
+
+        assertThat(rateLimiter.acquire(search, "user:alice")).isZero();
+        assertThat(other.acquire(other.resolve(request("/api/_search/books")), "user:alice")).isZero();
+        assertThat(rateLimiter.acquire(search, "user:alice")).isZero();
+        assertThat(other.acquire(other.resolve(request("/api/_search/books")), "user:alice")).isPositive();
+    }
+
+    @Test
+    public void concurrentRequestsNeverExceedTheBurst() throws Exception {
+        RateLimiter.Limit api = rateLimiter.resolve(request("/api/books"));
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                    if (rateLimiter.acquire(api, "user:alice") == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(allowed.get()).isEqualTo(100);
+    }
+
+    private RateLimiter newRateLimiter(RateLimitStore store) {
+        return new RateLimiter(groups, store, clock::get, new MetricRegistry());
+    }
+
+    private static JHipsterProperties.RateLimiting.Group group(String name, String path, double requestsPerSecond,
+                                                               int burst) {
+        JHipsterProperties.RateLimiting.Group group = new JHipsterProperties.RateLimiting.Group();
+        group.setName(name);
+        group.setPaths(Collections.singletonList(path));
+        group.setRequestsPerSecond(requestsPerSecond);
+        group.setBurst(burst);
+        return group;
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
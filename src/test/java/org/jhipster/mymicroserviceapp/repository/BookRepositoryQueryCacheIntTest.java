@@ -0,0 +1,121 @@
+package org.jhipster.mymicroserviceapp.repository;
+
+import org.jhipster.mymicroserviceapp.MymicroserviceappApp;
+import org.jhipster.mymicroserviceapp.domain.Book;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.UpdateTimestampsCache;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.cache.CacheManager;
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the query cache of the BookRepository list queries.
+ *
+ * @see BookRepository#findAll(org.springframework.data.domain.Pageable)
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = MymicroserviceappApp.class)
+public class BookRepositoryQueryCacheIntTest {
+
+    @Inject
+    private BookRepository bookRepository;
+
+    @Inject
+    private CacheManager cacheManager;
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+
+    @Before
+    public void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @After
+    public void cleanup() {
+        transactionTemplate.execute(status -> {
+            bookRepository.deleteAll();
+            return null;
+        });
+    }
+
+    @Test
+    public void repeatedListingsAreServedFromTheQueryCache() {
+        saveBook("first");
+        expireUpdateTimestamps();
+        statistics.clear();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(listBooks()).isEqualTo(1);
+        }
+
+        assertThat(statistics.getQueryCachePutCount()).isGreaterThan(0);
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThanOrEqualTo(9);
+    }
+
+    @Test
+    public void listingsAreInvalidatedByWrites() {
+        saveBook("first");
+        expireUpdateTimestamps();
+        assertThat(listBooks()).isEqualTo(1);
+        assertThat(listBooks()).isEqualTo(1);
+
+        saveBook("second");
+        statistics.clear();
+
+        assertThat(listBooks()).isEqualTo(2);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(0);
+        assertThat(statistics.getQueryCacheMissCount()).isGreaterThan(0);
+
+        expireUpdateTimestamps();
+        statistics.clear();
+        assertThat(listBooks()).isEqualTo(2);
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThan(0);
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(0);
+    }
+
+    /**
+     * Hibernate timestamps the query results and the table updates with a 100 ms resolution: a result cached in the
+     * same tick as the last update of its tables is not up-to-date. Forgetting the updates makes the results cached
+     * since then up-to-date, as if the next tick had come.
+     */
+    private void expireUpdateTimestamps() {
+        cacheManager.getCache(UpdateTimestampsCache.class.getName()).clear();
+    }
+
+    private void saveBook(String name) {
+        transactionTemplate.execute(status -> bookRepository.save(new Book()
+            .name(name)
+            .publishDate(LocalDate.ofEpochDay(0L))
+            .author(name)));
+    }
+
+    private long listBooks() {
+        return transactionTemplate.execute(status ->
+            bookRepository.findAll(new PageRequest(0, 20)).getTotalElements());
+    }
+}
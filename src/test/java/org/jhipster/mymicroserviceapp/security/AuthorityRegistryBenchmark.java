@@ -0,0 +1,71 @@
+package org.jhipster.mymicroserviceapp.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark of the parsing of the authorities claim of the tokens, by splitting it or through the
+ * {@link AuthorityRegistry}: the allocations of each request are the "gc.alloc.rate.norm" of the GC profiler.
+ *
+ * <p>Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.jhipster.mymicroserviceapp.security.AuthorityRegistryBenchmark</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorityRegistryBenchmark {
+
+    private String[] claims;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+        // the claims are read from the JSON of each token: they are equal to the known claims, not the same strings
+        claims = new String[1024];
+        for (int i = 0; i < claims.length; i++) {
+            claims[i] = new String(i % 2 == 0 ? AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER :
+                AuthoritiesConstants.USER);
+        }
+    }
+
+    private String nextClaim() {
+        next = (next + 1) & (claims.length - 1);
+        return claims[next];
+    }
+
+    /**
+     * The former parsing: a new list of new authorities for each request.
+     */
+    @Benchmark
+    public List<? extends GrantedAuthority> split() {
+        return Arrays.stream(nextClaim().split(","))
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<? extends GrantedAuthority> interned() {
+        return AuthorityRegistry.fromClaim(nextClaim());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AuthorityRegistryBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,45 @@
+package org.jhipster.mymicroserviceapp.security;
+
+import org.junit.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the AuthorityRegistry. The allocations of the parsing are measured by the AuthorityRegistryBenchmark.
+ *
+ * @see AuthorityRegistry
+ */
+public class AuthorityRegistryTest {
+
+    @Test
+    public void knownClaimsAreShared() {
+        List<GrantedAuthority> authorities = AuthorityRegistry.fromClaim(
+            new String(AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER));
+
+        assertThat(authorities).containsExactly(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN),
+            new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        assertThat(AuthorityRegistry.fromClaim(AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER))
+            .isSameAs(authorities);
+        assertThat(AuthorityRegistry.fromClaim(AuthoritiesConstants.USER).get(0))
+            .isSameAs(authorities.get(1));
+    }
+
+    @Test
+    public void otherClaimsAreInterned() {
+        List<GrantedAuthority> authorities = AuthorityRegistry.fromClaim("ROLE_AUDITOR, ROLE_USER");
+
+        assertThat(authorities).containsExactly(new SimpleGrantedAuthority("ROLE_AUDITOR"),
+            new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        assertThat(AuthorityRegistry.fromClaim("ROLE_AUDITOR, ROLE_USER")).isSameAs(authorities);
+        assertThat(AuthorityRegistry.fromClaim("")).isEmpty();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void authoritiesAreImmutable() {
+        AuthorityRegistry.fromClaim(AuthoritiesConstants.ADMIN).add(new SimpleGrantedAuthority("ROLE_HACKER"));
+    }
+}
@@ -0,0 +1,98 @@
+package org.jhipster.mymicroserviceapp.security;
+
+import com.codahale.metrics.Timer;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreInvocationAttribute;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the CachingPreInvocationAdvice.
+ *
+ * @see CachingPreInvocationAdvice
+ */
+public class CachingPreInvocationAdviceTest {
+
+    private CachingPreInvocationAdvice advice;
+
+    private ExpressionAttributeFactory attributeFactory;
+
+    private SimpleMethodInvocation invocation;
+
+    @Before
+    public void setup() throws Exception {
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        advice = new CachingPreInvocationAdvice();
+        advice.setExpressionHandler(expressionHandler);
+        attributeFactory = new ExpressionAttributeFactory(expressionHandler);
+        invocation = new SimpleMethodInvocation(new Books(), Books.class.getMethod("delete", Long.class), 1L);
+    }
+
+    @Test
+    public void authorityOnlyExpressions() {
+        assertThat(CachingPreInvocationAdvice.isAuthorityOnly("hasAuthority('ROLE_ADMIN')")).isTrue();
+        assertThat(CachingPreInvocationAdvice.isAuthorityOnly(
+            "hasAnyRole('ADMIN', 'USER') and isAuthenticated()")).isTrue();
+        assertThat(CachingPreInvocationAdvice.isAuthorityOnly("hasAuthority('principal.username')")).isTrue();
+        assertThat(CachingPreInvocationAdvice.isAuthorityOnly("#id == 1")).isFalse();
+        assertThat(CachingPreInvocationAdvice.isAuthorityOnly("principal.username == 'admin'")).isFalse();
+        assertThat(CachingPreInvocationAdvice.isAuthorityOnly("@bookService.isOwner(#id)")).isFalse();
+        assertThat(CachingPreInvocationAdvice.isAuthorityOnly("T(java.lang.Math).random() > 0.5")).isFalse();
+        assertThat(CachingPreInvocationAdvice.isAuthorityOnly("hasPermission(#id, 'Book', 'delete')")).isFalse();
+    }
+
+    @Test
+    public void authorityOnlyDecisionsAreCached() {
+        PreInvocationAttribute attribute = attribute("hasAuthority('" + AuthoritiesConstants.ADMIN + "')");
+
+        assertThat(advice.before(authentication(AuthoritiesConstants.ADMIN), invocation, attribute)).isTrue();
+        assertThat(advice.before(authentication(AuthoritiesConstants.ADMIN), invocation, attribute)).isTrue();
+        assertThat(evaluations()).isEqualTo(1);
+
+        assertThat(advice.before(authentication(AuthoritiesConstants.USER), invocation, attribute)).isFalse();
+        assertThat(advice.before(authentication(AuthoritiesConstants.USER), invocation, attribute)).isFalse();
+        assertThat(evaluations()).isEqualTo(2);
+    }
+
+    @Test
+    public void argumentDependentDecisionsAreNotCached() {
+        PreInvocationAttribute attribute = attribute("#id == 1");
+
+        assertThat(advice.before(authentication(AuthoritiesConstants.USER), invocation, attribute)).isTrue();
+        assertThat(advice.before(authentication(AuthoritiesConstants.USER), invocation, attribute)).isTrue();
+        assertThat(evaluations()).isEqualTo(2);
+    }
+
+    @Test
+    public void authorityOnlyExpressionsAreCompiled() {
+        PreInvocationAttribute attribute = attribute("hasAuthority('" + AuthoritiesConstants.ADMIN + "')");
+
+        assertThat(advice.compile(attribute, invocation)).isTrue();
+        assertThat(advice.before(authentication(AuthoritiesConstants.ADMIN), invocation, attribute)).isTrue();
+        assertThat(advice.before(authentication(AuthoritiesConstants.USER), invocation, attribute)).isFalse();
+        assertThat(advice.compile(attribute("#id == 1"), invocation)).isFalse();
+    }
+
+    private PreInvocationAttribute attribute(String expression) {
+        return attributeFactory.createPreInvocationAttribute(null, null, expression);
+    }
+
+    private static Authentication authentication(String authority) {
+        return new UsernamePasswordAuthenticationToken("user", "", AuthorityRegistry.fromClaim(authority));
+    }
+
+    private long evaluations() {
+        return ((Timer) advice.getMetrics().get("evaluations")).getCount();
+    }
+
+    public static class Books {
+
+        public void delete(Long id) {
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.jhipster.mymicroserviceapp.security;
+
+import org.jhipster.mymicroserviceapp.security.jwt.JWTConfigurer;
+import org.jhipster.mymicroserviceapp.security.jwt.JWTFilter;
+import org.jhipster.mymicroserviceapp.security.jwt.TestJsonWebKeys;
+import org.jhipster.mymicroserviceapp.security.jwt.TokenProvider;
+
+import com.codahale.metrics.Meter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.ConfigAttribute;
+import org.springframework.security.access.SecurityConfig;
+import org.springframework.security.access.vote.AffirmativeBased;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.DefaultSecurityFilterChain;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.access.ExceptionTranslationFilter;
+import org.springframework.security.web.access.expression.DefaultWebSecurityExpressionHandler;
+import org.springframework.security.web.access.expression.ExpressionBasedFilterInvocationSecurityMetadataSource;
+import org.springframework.security.web.access.expression.WebExpressionVoter;
+import org.springframework.security.web.access.intercept.FilterSecurityInterceptor;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.security.web.authentication.Http403ForbiddenEntryPoint;
+import org.springframework.security.web.context.NullSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextPersistenceFilter;
+import org.springframework.security.web.header.HeaderWriterFilter;
+import org.springframework.security.web.header.writers.CacheControlHeadersWriter;
+import org.springframework.security.web.header.writers.HstsHeaderWriter;
+import org.springframework.security.web.header.writers.XContentTypeOptionsHeaderWriter;
+import org.springframework.security.web.header.writers.XXssProtectionHeaderWriter;
+import org.springframework.security.web.servletapi.SecurityContextHolderAwareRequestFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.AnyRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the security filters on a probe: a request to "/management/health" matched by the
+ * BypassRequestMatcher skips them, while the same request going through the stateless filter chain of
+ * MicroserviceSecurityConfiguration is authenticated by the JWTFilter and authorized by the FilterSecurityInterceptor.
+ *
+ * <p>The chains are built by hand with the filters of the stateless configuration, and end in a MockFilterChain, so
+ * that only the security work is measured. A new request is created for each invocation, as the filters mark the
+ * requests they have filtered; its creation is the same in both benchmarks.</p>
+ *
+ * <p>Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.jhipster.mymicroserviceapp.security.SecurityFilterChainBenchmark</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityFilterChainBenchmark {
+
+    private static final String PROBE = "/management/health";
+
+    private FilterChainProxy bypassing;
+
+    private FilterChainProxy filtering;
+
+    private String authorization;
+
+    @Setup
+    public void setup() throws Exception {
+        TokenProvider tokenProvider = TestJsonWebKeys.tokenProvider(TestJsonWebKeys.secretProperties());
+        authorization = "Bearer " + tokenProvider.createToken(new UsernamePasswordAuthenticationToken("admin", "",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))), false);
+
+        DefaultSecurityFilterChain ignored = new DefaultSecurityFilterChain(
+            new BypassRequestMatcher(Collections.singletonList(PROBE), new Meter()));
+        bypassing = new FilterChainProxy(Arrays.asList(ignored, securedChain(tokenProvider)));
+        bypassing.afterPropertiesSet();
+        filtering = new FilterChainProxy(securedChain(tokenProvider));
+        filtering.afterPropertiesSet();
+    }
+
+    /**
+     * The filters that HttpSecurity configures for MicroserviceSecurityConfiguration, without the rate limiting.
+     */
+    private static DefaultSecurityFilterChain securedChain(TokenProvider tokenProvider) throws Exception {
+        SecurityContextPersistenceFilter securityContextPersistenceFilter =
+            new SecurityContextPersistenceFilter(new NullSecurityContextRepository());
+        HeaderWriterFilter headerWriterFilter = new HeaderWriterFilter(Arrays.asList(
+            new XContentTypeOptionsHeaderWriter(), new XXssProtectionHeaderWriter(), new CacheControlHeadersWriter(),
+            new HstsHeaderWriter()));
+        SecurityContextHolderAwareRequestFilter securityContextHolderAwareRequestFilter =
+            new SecurityContextHolderAwareRequestFilter();
+        securityContextHolderAwareRequestFilter.afterPropertiesSet();
+        AnonymousAuthenticationFilter anonymousAuthenticationFilter = new AnonymousAuthenticationFilter("anonymous");
+
+        LinkedHashMap<RequestMatcher, Collection<ConfigAttribute>> requestMap = new LinkedHashMap<>();
+        requestMap.put(new AntPathRequestMatcher("/api/**"), SecurityConfig.createList("authenticated"));
+        requestMap.put(new AntPathRequestMatcher("/management/**"),
+            SecurityConfig.createList("hasAuthority('" + AuthoritiesConstants.ADMIN + "')"));
+        requestMap.put(new AntPathRequestMatcher("/swagger-resources/configuration/ui"),
+            SecurityConfig.createList("permitAll"));
+        FilterSecurityInterceptor filterSecurityInterceptor = new FilterSecurityInterceptor();
+        filterSecurityInterceptor.setSecurityMetadataSource(new ExpressionBasedFilterInvocationSecurityMetadataSource(
+            requestMap, new DefaultWebSecurityExpressionHandler()));
+        filterSecurityInterceptor.setAccessDecisionManager(
+            new AffirmativeBased(Collections.singletonList(new WebExpressionVoter())));
+        filterSecurityInterceptor.setAuthenticationManager(authentication -> authentication);
+        filterSecurityInterceptor.afterPropertiesSet();
+
+        return new DefaultSecurityFilterChain(AnyRequestMatcher.INSTANCE, securityContextPersistenceFilter,
+            headerWriterFilter, new JWTFilter(tokenProvider), securityContextHolderAwareRequestFilter,
+            anonymousAuthenticationFilter, new ExceptionTranslationFilter(new Http403ForbiddenEntryPoint()),
+            filterSecurityInterceptor);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse bypassed() throws IOException, ServletException {
+        return probe(bypassing);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse filtered() throws IOException, ServletException {
+        return probe(filtering);
+    }
+
+    private MockHttpServletResponse probe(FilterChainProxy filterChainProxy) throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PROBE);
+        request.setServletPath(PROBE);
+        request.addHeader(JWTConfigurer.AUTHORIZATION_HEADER, authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filterChainProxy.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SecurityFilterChainBenchmark.class.getSimpleName()).build()).run();
+    }
+}
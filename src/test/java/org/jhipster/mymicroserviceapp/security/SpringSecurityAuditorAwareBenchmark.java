@@ -0,0 +1,82 @@
+package org.jhipster.mymicroserviceapp.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the auditing of a bulk insert: the auditing handler asks for the current auditor for every entity it
+ * writes, once for the creator and once for the last modifier, all within a single transaction.
+ *
+ * <p>Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.jhipster.mymicroserviceapp.security.SpringSecurityAuditorAwareBenchmark</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpringSecurityAuditorAwareBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private final SpringSecurityAuditorAware auditorAware = new SpringSecurityAuditorAware();
+
+    @Setup
+    public void setup() {
+        User user = new User("user", "", Collections.emptyList());
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, "token", user.getAuthorities()));
+    }
+
+    /**
+     * The former auditor, resolved for every row.
+     */
+    @Benchmark
+    public void resolvedForEachRow(Blackhole blackhole) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (int row = 0; row < ROWS; row++) {
+                blackhole.consume(SecurityUtils.getCurrentUserLogin());
+                blackhole.consume(SecurityUtils.getCurrentUserLogin());
+            }
+        } finally {
+            completeTransaction();
+        }
+    }
+
+    @Benchmark
+    public void memoizedPerTransaction(Blackhole blackhole) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (int row = 0; row < ROWS; row++) {
+                blackhole.consume(auditorAware.getCurrentAuditor());
+                blackhole.consume(auditorAware.getCurrentAuditor());
+            }
+        } finally {
+            completeTransaction();
+        }
+    }
+
+    private static void completeTransaction() {
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+            TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SpringSecurityAuditorAwareBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package org.jhipster.mymicroserviceapp.security;
+
+import org.jhipster.mymicroserviceapp.config.Constants;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the SpringSecurityAuditorAware.
+ *
+ * @see SpringSecurityAuditorAware
+ */
+public class SpringSecurityAuditorAwareTest {
+
+    private final SpringSecurityAuditorAware auditorAware = new SpringSecurityAuditorAware();
+
+    @After
+    public void cleanup() {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void auditorIsResolvedOncePerTransaction() {
+        login("alice");
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThat(auditorAware.getCurrentAuditor()).isEqualTo("alice");
+        login("bob");
+        assertThat(auditorAware.getCurrentAuditor()).isEqualTo("alice");
+
+        completeTransaction();
+        assertThat(auditorAware.getCurrentAuditor()).isEqualTo("bob");
+    }
+
+    @Test
+    public void auditorIsResolvedForEachWriteOutsideTransactions() {
+        assertThat(auditorAware.getCurrentAuditor()).isEqualTo(Constants.SYSTEM_ACCOUNT);
+        login("alice");
+        assertThat(auditorAware.getCurrentAuditor()).isEqualTo("alice");
+    }
+
+    private static void login(String login) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(login, "token", Collections.emptyList()));
+    }
+
+    private static void completeTransaction() {
+        TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+            TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
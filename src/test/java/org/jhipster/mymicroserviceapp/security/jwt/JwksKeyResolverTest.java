@@ -0,0 +1,160 @@
+package org.jhipster.mymicroserviceapp.security.jwt;
+
+import org.jhipster.mymicroserviceapp.security.AuthoritiesConstants;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.security.KeyPair;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the verification of the RS256 and ES256 tokens, with the keys of a JSON Web Key Set.
+ *
+ * @see JwksKeyResolver
+ */
+public class JwksKeyResolverTest {
+
+    private TestJsonWebKeys keys;
+
+    private KeyPair rsa;
+
+    private KeyPair ec;
+
+    private TokenProvider tokenProvider;
+
+    private JwksKeyResolver jwksKeyResolver;
+
+    @Before
+    public void setup() throws Exception {
+        keys = new TestJsonWebKeys();
+        rsa = keys.addRsaKey("rsa-1");
+        ec = keys.addEcKey("ec-1");
+        tokenProvider = TestJsonWebKeys.tokenProvider(keys.properties());
+        jwksKeyResolver = (JwksKeyResolver) ReflectionTestUtils.getField(tokenProvider, "jwksKeyResolver");
+    }
+
+    @Test
+    public void tokensAreVerifiedWithTheKeyOfTheirKid() throws Exception {
+        String rs256 = token("rsa-1", SignatureAlgorithm.RS256, rsa.getPrivate());
+        String es256 = token("ec-1", SignatureAlgorithm.ES256, ec.getPrivate());
+        String wrongKid = token("ec-1", SignatureAlgorithm.ES256, keys.addEcKey("ec-2").getPrivate());
+
+        assertThat(tokenProvider.parseToken(rs256).isValid()).isTrue();
+        assertThat(tokenProvider.parseToken(es256).isValid()).isTrue();
+        assertThat(tokenProvider.parseToken(es256).getAuthentication().getName()).isEqualTo("user");
+        assertThat(tokenProvider.parseToken(wrongKid).getStatus()).isEqualTo(TokenValidation.Status.INVALID_SIGNATURE);
+    }
+
+    @Test
+    public void keysAreRotatedWithoutRestart() throws Exception {
+        String old = token("rsa-1", SignatureAlgorithm.RS256, rsa.getPrivate());
+        assertThat(tokenProvider.parseToken(old).isValid()).isTrue();
+
+        // new keys are loaded on their first use
+        String rotated = token("rsa-2", SignatureAlgorithm.RS256, keys.addRsaKey("rsa-2").getPrivate());
+        ReflectionTestUtils.setField(jwksKeyResolver, "refreshedAt", 0L);
+        assertThat(tokenProvider.parseToken(rotated).isValid()).isTrue();
+
+        // removed keys are dropped on refresh, with the tokens they verified
+        keys.remove("rsa-1");
+        jwksKeyResolver.refresh();
+        assertThat(tokenProvider.parseToken(old).getStatus()).isEqualTo(TokenValidation.Status.INVALID_SIGNATURE);
+        assertThat(tokenProvider.parseToken(rotated).isValid()).isTrue();
+    }
+
+    @Test
+    public void unknownKidsAreRejected() throws Exception {
+        String token = token("unknown", SignatureAlgorithm.RS256, keys.addRsaKey("other").getPrivate());
+        keys.remove("other");
+        jwksKeyResolver.refresh();
+
+        assertThat(tokenProvider.parseToken(token).getStatus()).isEqualTo(TokenValidation.Status.INVALID_SIGNATURE);
+    }
+
+    @Test
+    public void unknownKidsRefreshTheKeySetOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        ReflectionTestUtils.setField(jwksKeyResolver, "resourceLoader", new DefaultResourceLoader() {
+            @Override
+            public Resource getResource(String location) {
+                loads.incrementAndGet();
+                return super.getResource(location);
+            }
+        });
+        ReflectionTestUtils.setField(jwksKeyResolver, "refreshedAt", 0L);
+        String forged = token("forged", SignatureAlgorithm.RS256, rsa.getPrivate());
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<TokenValidation>> validations = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                validations.add(executor.submit(() -> tokenProvider.parseToken(forged)));
+            }
+            for (Future<TokenValidation> validation : validations) {
+                assertThat(validation.get(10, TimeUnit.SECONDS).getStatus())
+                    .isEqualTo(TokenValidation.Status.INVALID_SIGNATURE);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void keysOnUnsupportedCurvesAreSkipped() throws Exception {
+        keys.addEcKey("ec-384", "P-384");
+        keys.addEcKey("ec-521", "P-521");
+        KeyPair rotated = keys.addRsaKey("rsa-2");
+        jwksKeyResolver.refresh();
+
+        JsonWebKeySet keySet = (JsonWebKeySet) ReflectionTestUtils.getField(jwksKeyResolver, "keySet");
+        assertThat(keySet.getKeys()).containsOnlyKeys("rsa-1", "rsa-2", "ec-1");
+        assertThat(tokenProvider.parseToken(token("rsa-2", SignatureAlgorithm.RS256, rotated.getPrivate())).isValid())
+            .isTrue();
+        assertThat(tokenProvider.parseToken(token("ec-1", SignatureAlgorithm.ES256, ec.getPrivate())).isValid())
+            .isTrue();
+    }
+
+    @Test
+    public void keysAreOnlyUsedWithTheirAlgorithm() {
+        String es256WithRsaKid = token("rsa-1", SignatureAlgorithm.ES256, ec.getPrivate());
+        String hs512 = Jwts.builder()
+            .setSubject("user")
+            .claim("auth", AuthoritiesConstants.ADMIN)
+            .setHeaderParam("kid", "rsa-1")
+            .signWith(SignatureAlgorithm.HS512, "c2VjcmV0")
+            .setExpiration(new Date(System.currentTimeMillis() + 60000))
+            .compact();
+
+        assertThat(tokenProvider.parseToken(es256WithRsaKid).getStatus())
+            .isEqualTo(TokenValidation.Status.INVALID_SIGNATURE);
+        assertThat(tokenProvider.parseToken(hs512).getStatus()).isEqualTo(TokenValidation.Status.UNSUPPORTED);
+    }
+
+    static String token(String kid, SignatureAlgorithm algorithm, Key privateKey) {
+        return Jwts.builder()
+            .setSubject("user")
+            .claim("auth", AuthoritiesConstants.USER)
+            .setHeaderParam("kid", kid)
+            .signWith(algorithm, privateKey)
+            .setExpiration(new Date(System.currentTimeMillis() + 60000))
+            .compact();
+    }
+}
@@ -0,0 +1,68 @@
+package org.jhipster.mymicroserviceapp.security.jwt;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the verification of a token by the TokenProvider, for each signature algorithm, without the cache of
+ * the verified tokens.
+ *
+ * <p>Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.jhipster.mymicroserviceapp.security.jwt.JwtSignatureBenchmark</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtSignatureBenchmark {
+
+    @Param({"HS512", "RS256", "ES256"})
+    private String algorithm;
+
+    private TokenProvider tokenProvider;
+
+    private String token;
+
+    @Setup
+    public void setup() throws Exception {
+        TestJsonWebKeys keys = new TestJsonWebKeys();
+        JHipsterProperties jHipsterProperties = keys.properties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setSecret(TestJsonWebKeys.SECRET);
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().getVerifiedTokens().setEnabled(false);
+        SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.forName(algorithm);
+        Key signingKey;
+        if (signatureAlgorithm == SignatureAlgorithm.RS256) {
+            signingKey = keys.addRsaKey(algorithm).getPrivate();
+        } else if (signatureAlgorithm == SignatureAlgorithm.ES256) {
+            signingKey = keys.addEcKey(algorithm).getPrivate();
+        } else {
+            signingKey = new SecretKeySpec(TextCodec.BASE64.decode(TestJsonWebKeys.SECRET), signatureAlgorithm.getJcaName());
+        }
+        tokenProvider = TestJsonWebKeys.tokenProvider(jHipsterProperties);
+        token = JwksKeyResolverTest.token(algorithm, signatureAlgorithm, signingKey);
+        if (!tokenProvider.parseToken(token).isValid()) {
+            throw new IllegalStateException("The " + algorithm + " token is not valid");
+        }
+    }
+
+    @Benchmark
+    public TokenValidation verify() {
+        return tokenProvider.parseToken(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtSignatureBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,144 @@
+package org.jhipster.mymicroserviceapp.security.jwt;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stand-in for the key server of the JWTs in the tests: generates key pairs, and publishes their public keys in a
+ * JSON Web Key Set file read by a {@link JwksKeyResolver}. Also holds the HS512 secret of the tests, and wires the
+ * TokenProvider they use.
+ */
+public final class TestJsonWebKeys {
+
+    /**
+     * The HS512 secret of the tests, the one of the test configuration.
+     */
+    public static final String SECRET = "2625b5abf530caecf5aeb0653be8cfaffb4e196e";
+
+    private final Map<String, KeyPair> keyPairs = new LinkedHashMap<>();
+
+    private final Map<String, String> curves = new LinkedHashMap<>();
+
+    private final Path file;
+
+    public TestJsonWebKeys() throws IOException {
+        file = Files.createTempFile("jwks", ".json");
+        file.toFile().deleteOnExit();
+    }
+
+    public KeyPair addRsaKey(String kid) throws GeneralSecurityException, IOException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return add(kid, generator.generateKeyPair());
+    }
+
+    public KeyPair addEcKey(String kid) throws GeneralSecurityException, IOException {
+        return addEcKey(kid, "P-256");
+    }
+
+    /**
+     * @param curve the JWK name of the curve: "P-256", "P-384" or "P-521"
+     */
+    public KeyPair addEcKey(String kid, String curve) throws GeneralSecurityException, IOException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp" + curve.substring(2) + "r1"));
+        curves.put(kid, curve);
+        return add(kid, generator.generateKeyPair());
+    }
+
+    public void remove(String kid) throws IOException {
+        keyPairs.remove(kid);
+        curves.remove(kid);
+        publish();
+    }
+
+    /**
+     * @return the JWT properties, with the key set and without HS512 secret
+     */
+    public JHipsterProperties properties() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().getJwks().setUri(file.toUri().toString());
+        return jHipsterProperties;
+    }
+
+    /**
+     * @return the JWT properties, with the HS512 secret and without key set
+     */
+    public static JHipsterProperties secretProperties() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setSecret(SECRET);
+        return jHipsterProperties;
+    }
+
+    /**
+     * @return a TokenProvider wired as by Spring: its JwksKeyResolver is only enabled if the properties have a key set
+     */
+    public static TokenProvider tokenProvider(JHipsterProperties jHipsterProperties) {
+        VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(verifiedTokenCache, "jHipsterProperties", jHipsterProperties);
+        verifiedTokenCache.init();
+        JwksKeyResolver jwksKeyResolver = new JwksKeyResolver();
+        ReflectionTestUtils.setField(jwksKeyResolver, "jHipsterProperties", jHipsterProperties);
+        ReflectionTestUtils.setField(jwksKeyResolver, "resourceLoader", new DefaultResourceLoader());
+        ReflectionTestUtils.setField(jwksKeyResolver, "verifiedTokenCache", verifiedTokenCache);
+        jwksKeyResolver.init();
+        TokenProvider tokenProvider = new TokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jHipsterProperties", jHipsterProperties);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedTokenCache", verifiedTokenCache);
+        ReflectionTestUtils.setField(tokenProvider, "jwksKeyResolver", jwksKeyResolver);
+        tokenProvider.init();
+        return tokenProvider;
+    }
+
+    private KeyPair add(String kid, KeyPair keyPair) throws IOException {
+        keyPairs.put(kid, keyPair);
+        publish();
+        return keyPair;
+    }
+
+    private void publish() throws IOException {
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, KeyPair> keyPair : keyPairs.entrySet()) {
+            if (keyPair.getValue().getPublic() instanceof RSAPublicKey) {
+                RSAPublicKey key = (RSAPublicKey) keyPair.getValue().getPublic();
+                keys.add("{\"kty\":\"RSA\",\"use\":\"sig\",\"alg\":\"RS256\",\"kid\":\"" + keyPair.getKey() + "\"," +
+                    "\"n\":\"" + base64Url(key.getModulus()) + "\",\"e\":\"" + base64Url(key.getPublicExponent()) + "\"}");
+            } else {
+                ECPublicKey key = (ECPublicKey) keyPair.getValue().getPublic();
+                keys.add("{\"kty\":\"EC\",\"use\":\"sig\",\"crv\":\"" + curves.get(keyPair.getKey()) + "\"," +
+                    "\"kid\":\"" + keyPair.getKey() + "\"," +
+                    "\"x\":\"" + base64Url(key.getW().getAffineX()) + "\",\"y\":\"" +
+                    base64Url(key.getW().getAffineY()) + "\"}");
+            }
+        }
+        Files.write(file, ("{\"keys\":[" + String.join(",", keys) + "]}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes[0] == 0 && bytes.length > 1) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,104 @@
+package org.jhipster.mymicroserviceapp.security.jwt;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.jhipster.mymicroserviceapp.security.jwt.TestJsonWebKeys.SECRET;
+
+/**
+ * Benchmark of the creation, validation and parsing of the tokens, for tokens of growing sizes (number of
+ * authorities): the creation with the JJWT builder, as the TokenProvider used to do, is compared with the templates
+ * of the TokenMinter.
+ *
+ * <p>Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.jhipster.mymicroserviceapp.security.jwt.TokenIssuanceBenchmark</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenIssuanceBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int authorities;
+
+    private TokenProvider tokenProvider;
+
+    private Authentication authentication;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        JHipsterProperties jHipsterProperties = TestJsonWebKeys.secretProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().getVerifiedTokens().setEnabled(false);
+        tokenProvider = TestJsonWebKeys.tokenProvider(jHipsterProperties);
+
+        List<GrantedAuthority> grantedAuthorities = new ArrayList<>();
+        for (int i = 0; i < authorities; i++) {
+            grantedAuthorities.add(new SimpleGrantedAuthority("ROLE_" + i));
+        }
+        authentication = new UsernamePasswordAuthenticationToken("user", "", grantedAuthorities);
+        token = tokenProvider.createToken(authentication, false);
+    }
+
+    /**
+     * The former creation: the authorities joined, then a claims map and a header serialized by JJWT.
+     */
+    @Benchmark
+    public String createWithJjwtBuilder() {
+        String auth = authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .collect(Collectors.joining(","));
+        return Jwts.builder()
+            .setSubject(authentication.getName())
+            .claim("auth", auth)
+            .signWith(SignatureAlgorithm.HS512, SECRET)
+            .setExpiration(new Date(System.currentTimeMillis() + 1800000))
+            .compact();
+    }
+
+    @Benchmark
+    public String createWithTemplates() {
+        return tokenProvider.createToken(authentication, false);
+    }
+
+    /**
+     * The verification of the signature and expiry of a token.
+     */
+    @Benchmark
+    public Claims validate() {
+        return Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * The verification of a token and the resolution of its authentication, as done by the JWTFilter.
+     */
+    @Benchmark
+    public Authentication parse() {
+        return tokenProvider.parseToken(token).getAuthentication();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenIssuanceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,76 @@
+package org.jhipster.mymicroserviceapp.security.jwt;
+
+import org.jhipster.mymicroserviceapp.security.AuthoritiesConstants;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.impl.TextCodec;
+import org.junit.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jhipster.mymicroserviceapp.security.jwt.TestJsonWebKeys.SECRET;
+
+/**
+ * Test class for the TokenMinter: its tokens must be read by JJWT as the ones of the JJWT builder.
+ *
+ * @see TokenMinter
+ */
+public class TokenMinterTest {
+
+    private final TokenMinter tokenMinter = new TokenMinter(
+        new SecretKeySpec(TextCodec.BASE64.decode(SECRET), SignatureAlgorithm.HS512.getJcaName()));
+
+    private final long expiry = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+
+    @Test
+    public void mintedTokensAreTheSameAsTheOnesOfJjwt() {
+        List<GrantedAuthority> authorities = Arrays.asList(new SimpleGrantedAuthority(AuthoritiesConstants.USER),
+            new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN));
+
+        String token = tokenMinter.mint("user", authorities, expiry);
+
+        assertThat(token).isEqualTo(Jwts.builder()
+            .setSubject("user")
+            .claim("auth", AuthoritiesConstants.USER + "," + AuthoritiesConstants.ADMIN)
+            .signWith(SignatureAlgorithm.HS512, SECRET)
+            .setExpiration(new Date(expiry))
+            .compact());
+    }
+
+    @Test
+    public void claimsAreEscaped() {
+        String subject = "\"quoted\" \\ user\n\u00e9";
+        List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_\"ODD\""));
+
+        Claims claims = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(tokenMinter.mint(subject, authorities, expiry))
+            .getBody();
+
+        assertThat(claims.getSubject()).isEqualTo(subject);
+        assertThat(claims.get("auth")).isEqualTo("ROLE_\"ODD\"");
+        assertThat(claims.getExpiration().getTime()).isEqualTo(expiry / 1000 * 1000);
+    }
+
+    @Test
+    public void templatesAreSharedByTheCollectionsOfTheSameAuthorities() {
+        List<GrantedAuthority> list = Arrays.asList(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN),
+            new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+
+        String fromList = tokenMinter.mint("user", list, expiry);
+        String fromSet = tokenMinter.mint("user", new LinkedHashSet<>(list), expiry);
+
+        assertThat(fromSet).isEqualTo(fromList);
+        assertThat(Jwts.parser().setSigningKey(SECRET).parseClaimsJws(fromSet).getBody().get("auth"))
+            .isEqualTo(AuthoritiesConstants.ADMIN + "," + AuthoritiesConstants.USER);
+    }
+}
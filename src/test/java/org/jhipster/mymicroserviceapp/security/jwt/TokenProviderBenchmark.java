@@ -0,0 +1,83 @@
+package org.jhipster.mymicroserviceapp.security.jwt;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+import org.jhipster.mymicroserviceapp.security.AuthoritiesConstants;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.jhipster.mymicroserviceapp.security.jwt.TestJsonWebKeys.SECRET;
+
+/**
+ * Benchmark of the authentication of a request by the JWTFilter: the token used to be parsed and verified once to
+ * validate it, and once more to read its claims.
+ *
+ * <p>Run with: ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.jhipster.mymicroserviceapp.security.jwt.TokenProviderBenchmark</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenProviderBenchmark {
+
+    private TokenProvider tokenProvider;
+
+    private TokenProvider cachingTokenProvider;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        tokenProvider = tokenProvider(false);
+        cachingTokenProvider = tokenProvider(true);
+        token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("user", "", Arrays.asList(
+            new SimpleGrantedAuthority(AuthoritiesConstants.USER),
+            new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))), false);
+    }
+
+    private static TokenProvider tokenProvider(boolean cacheVerifiedTokens) {
+        JHipsterProperties jHipsterProperties = TestJsonWebKeys.secretProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().getVerifiedTokens().setEnabled(cacheVerifiedTokens);
+        return TestJsonWebKeys.tokenProvider(jHipsterProperties);
+    }
+
+    /**
+     * The former authentication: a validation, then a second parse to read the claims.
+     */
+    @Benchmark
+    public Authentication validateThenParse() {
+        Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token);
+        Claims claims = Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token).getBody();
+        return tokenProvider.getAuthentication(claims);
+    }
+
+    @Benchmark
+    public Authentication parseOnce() {
+        return tokenProvider.parseToken(token).getAuthentication();
+    }
+
+    /**
+     * A token sent again, served from the cache of the verified tokens.
+     */
+    @Benchmark
+    public Authentication verifiedTokenCacheHit() {
+        return cachingTokenProvider.parseToken(token).getAuthentication();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TokenProviderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,41 @@
+package org.jhipster.mymicroserviceapp.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jhipster.mymicroserviceapp.security.jwt.TestJsonWebKeys.SECRET;
+
+/**
+ * Test class for the TokenProvider.
+ *
+ * @see TokenProvider
+ */
+public class TokenProviderTest {
+
+    private TokenProvider tokenProvider;
+
+    @Before
+    public void setup() {
+        tokenProvider = TestJsonWebKeys.tokenProvider(TestJsonWebKeys.secretProperties());
+    }
+
+    @Test
+    public void tokensWithoutAuthoritiesHaveNoAuthorities() {
+        String token = Jwts.builder()
+            .setSubject("user")
+            .signWith(SignatureAlgorithm.HS512, SECRET)
+            .setExpiration(new Date(System.currentTimeMillis() + 60000))
+            .compact();
+
+        TokenValidation validation = tokenProvider.parseToken(token);
+
+        assertThat(validation.isValid()).isTrue();
+        assertThat(validation.getAuthentication().getName()).isEqualTo("user");
+        assertThat(validation.getAuthentication().getAuthorities()).isEmpty();
+    }
+}
@@ -0,0 +1,95 @@
+package org.jhipster.mymicroserviceapp.security.jwt;
+
+import org.jhipster.mymicroserviceapp.security.AuthoritiesConstants;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.jhipster.mymicroserviceapp.security.jwt.TestJsonWebKeys.SECRET;
+
+/**
+ * Test class for the VerifiedTokenCache, through the TokenProvider.
+ *
+ * @see VerifiedTokenCache
+ */
+public class VerifiedTokenCacheTest {
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private TokenProvider tokenProvider;
+
+    @Before
+    public void setup() {
+        tokenProvider = TestJsonWebKeys.tokenProvider(TestJsonWebKeys.secretProperties());
+        verifiedTokenCache = (VerifiedTokenCache) ReflectionTestUtils.getField(tokenProvider, "verifiedTokenCache");
+    }
+
+    @Test
+    public void verifiedTokensAreServedFromTheCache() {
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("user", "",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))), false);
+
+        TokenValidation first = tokenProvider.parseToken(token);
+        TokenValidation second = tokenProvider.parseToken(token);
+
+        assertThat(first.isValid()).isTrue();
+        assertThat(first.getAuthentication().getName()).isEqualTo("user");
+        assertThat(second).isSameAs(first);
+        assertThat(verifiedTokenCache.getMetrics()).containsKey("hit-ratio");
+    }
+
+    @Test
+    public void expiredTokensAreVerifiedAgain() throws Exception {
+        String token = Jwts.builder()
+            .setSubject("user")
+            .claim("auth", AuthoritiesConstants.USER)
+            .signWith(SignatureAlgorithm.HS512, SECRET)
+            .setExpiration(new Date(System.currentTimeMillis() + 1000))
+            .compact();
+
+        assertThat(tokenProvider.parseToken(token).isValid()).isTrue();
+        Thread.sleep(1100);
+
+        assertThat(verifiedTokenCache.get(token)).isNull();
+        assertThat(tokenProvider.parseToken(token).getStatus()).isEqualTo(TokenValidation.Status.EXPIRED);
+    }
+
+    @Test
+    public void tamperedTokensAreNotServedFromTheCache() {
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("user", "",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))), false);
+        assertThat(tokenProvider.parseToken(token).isValid()).isTrue();
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(tokenProvider.parseToken(tampered).getStatus()).isEqualTo(TokenValidation.Status.INVALID_SIGNATURE);
+    }
+
+    @Test
+    public void cachedTokensGetANewAuthenticationForEachRequest() {
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("user", "",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))), false);
+        Authentication first = tokenProvider.parseToken(token).getAuthentication();
+        first.setAuthenticated(false);
+        ((UsernamePasswordAuthenticationToken) first).setDetails("first request");
+
+        Authentication second = tokenProvider.parseToken(token).getAuthentication();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPrincipal()).isNotSameAs(first.getPrincipal());
+        assertThat(second.isAuthenticated()).isTrue();
+        assertThat(second.getDetails()).isNull();
+        assertThat(second.getName()).isEqualTo("user");
+        assertThat(second.getAuthorities()).extracting("authority").containsExactly(AuthoritiesConstants.USER);
+    }
+}
@@ -0,0 +1,190 @@
+package org.jhipster.mymicroserviceapp.service.search;
+
+import org.jhipster.mymicroserviceapp.MymicroserviceappApp;
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+import org.jhipster.mymicroserviceapp.domain.Book;
+import org.jhipster.mymicroserviceapp.repository.BookRepository;
+import org.jhipster.mymicroserviceapp.repository.search.BookSearchRepository;
+import org.jhipster.mymicroserviceapp.service.BookService;
+import org.jhipster.mymicroserviceapp.service.dto.BookDTO;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.inject.Inject;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Test class for the bulk-load mode of the book index, and for the imports of the BookService.
+ *
+ * @see BookIndexBulkLoader
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = MymicroserviceappApp.class)
+public class BookIndexBulkLoaderIntTest {
+
+    @Inject
+    private BookIndexBulkLoader bookIndexBulkLoader;
+
+    @Inject
+    private BookService bookService;
+
+    @Inject
+    private BookRepository bookRepository;
+
+    @Inject
+    private BookSearchRepository bookSearchRepository;
+
+    @Inject
+    private ElasticsearchTemplate elasticsearchTemplate;
+
+    @Inject
+    private JHipsterProperties jHipsterProperties;
+
+    private String indexName;
+
+    private String configuredRefreshInterval;
+
+    @Before
+    public void setup() {
+        elasticsearchTemplate.createIndex(Book.class);
+        indexName = elasticsearchTemplate.getPersistentEntityFor(Book.class).getIndexName();
+        configuredRefreshInterval = jHipsterProperties.getSearch().getIndex().getRefreshInterval();
+    }
+
+    @After
+    public void cleanup() {
+        bookIndexBulkLoader.exitFromApi();
+        while (bookIndexBulkLoader.isActive()) {
+            bookIndexBulkLoader.exit();
+        }
+        elasticsearchTemplate.deleteIndex(indexName + "-bulk-leases");
+        // leaves the mode kept by the lease of the other instance
+        bookIndexBulkLoader.checkLeases();
+        bookRepository.deleteAll();
+        bookSearchRepository.deleteAll();
+    }
+
+    @Test
+    public void settingsAreRestoredWhenTheModeIsLeft() {
+        bookIndexBulkLoader.enter();
+        bookIndexBulkLoader.enter();
+        assertThat(refreshInterval()).isEqualTo("-1");
+
+        bookIndexBulkLoader.exit();
+        assertThat(refreshInterval()).isEqualTo("-1");
+        bookIndexBulkLoader.exit();
+        assertThat(refreshInterval()).isEqualTo(configuredRefreshInterval);
+    }
+
+    @Test
+    public void modeIsKeptWhileAnotherInstanceHoldsIt() {
+        bookIndexBulkLoader.enter();
+        leaseOfAnotherInstance(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(5));
+
+        bookIndexBulkLoader.exit();
+        assertThat(refreshInterval()).isEqualTo("-1");
+
+        bookIndexBulkLoader.checkLeases();
+        assertThat(refreshInterval()).isEqualTo("-1");
+    }
+
+    @Test
+    public void modeAbandonedByAStoppedInstanceIsLeft() {
+        bookIndexBulkLoader.enter();
+        leaseOfAnotherInstance(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(5));
+        bookIndexBulkLoader.exit();
+
+        leaseOfAnotherInstance(System.currentTimeMillis() - 1);
+        bookIndexBulkLoader.checkLeases();
+
+        assertThat(refreshInterval()).isEqualTo(configuredRefreshInterval);
+    }
+
+    @Test
+    public void modeHeldByTheApiIsTimeLimited() {
+        bookIndexBulkLoader.enterFromApi();
+        ReflectionTestUtils.setField(bookIndexBulkLoader, "heldByApiSince", System.currentTimeMillis() -
+            TimeUnit.SECONDS.toMillis(jHipsterProperties.getSearch().getBulk().getApiHoldTimeoutInSeconds() + 1));
+
+        bookIndexBulkLoader.checkLeases();
+
+        assertThat(bookIndexBulkLoader.isActive()).isFalse();
+        assertThat(refreshInterval()).isEqualTo(configuredRefreshInterval);
+    }
+
+    @Test
+    public void importedBooksAreSearchableOnceSaved() {
+        bookService.save(bookDTOs("imported", 3));
+
+        assertThat(bookSearchRepository.search(queryStringQuery("name:imported"))).hasSize(3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void indexedBooksAreDeletedWhenTheImportFails() {
+        BookIndexBulkLoader failingBulkLoader = spy(bookIndexBulkLoader);
+        // indexes the first two books, and reports the third one as failed
+        doAnswer(invocation -> {
+            List<Book> books = (List<Book>) invocation.getArguments()[0];
+            Set<Long> failures = bookIndexBulkLoader.index(books.subList(0, 2));
+            failures.add(books.get(2).getId());
+            return failures;
+        }).when(failingBulkLoader).index(anyListOf(Book.class));
+        Object bookServiceTarget = AopTestUtils.getTargetObject(bookService);
+        ReflectionTestUtils.setField(bookServiceTarget, "bookIndexBulkLoader", failingBulkLoader);
+        try {
+            assertThatThrownBy(() -> bookService.save(bookDTOs("rolledback", 3)))
+                .isInstanceOf(IllegalStateException.class);
+        } finally {
+            ReflectionTestUtils.setField(bookServiceTarget, "bookIndexBulkLoader", bookIndexBulkLoader);
+        }
+
+        elasticsearchTemplate.refresh(Book.class);
+        assertThat(bookSearchRepository.search(queryStringQuery("name:rolledback"))).isEmpty();
+        assertThat(bookRepository.findAll()).isEmpty();
+    }
+
+    private static List<BookDTO> bookDTOs(String name, int count) {
+        List<BookDTO> bookDTOs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BookDTO bookDTO = new BookDTO();
+            bookDTO.setName(name);
+            bookDTO.setPublishDate(LocalDate.ofEpochDay(0L));
+            bookDTO.setAuthor("author" + i);
+            bookDTOs.add(bookDTO);
+        }
+        return bookDTOs;
+    }
+
+    private void leaseOfAnotherInstance(long expiresAt) {
+        elasticsearchTemplate.getClient().prepareIndex(indexName + "-bulk-leases", "lease", "another-instance")
+            .setSource(Collections.singletonMap("expiresAt", expiresAt))
+            .setRefresh(true)
+            .get();
+    }
+
+    private String refreshInterval() {
+        return elasticsearchTemplate.getClient().admin().indices().prepareGetSettings(indexName).get()
+            .getSetting(indexName, "index.refresh_interval");
+    }
+}
@@ -0,0 +1,144 @@
+package org.jhipster.mymicroserviceapp.service.search;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties.Search.HydrationMode;
+import org.jhipster.mymicroserviceapp.domain.Book;
+import org.jhipster.mymicroserviceapp.repository.BookRepository;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the BookSearchHydrator.
+ *
+ * @see BookSearchHydrator
+ */
+public class BookSearchHydratorTest {
+
+    private final Pageable pageable = new PageRequest(0, 20);
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Cache cache;
+
+    private JHipsterProperties jHipsterProperties;
+
+    private BookSearchHydrator bookSearchHydrator;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        jHipsterProperties = new JHipsterProperties();
+        bookSearchHydrator = new BookSearchHydrator();
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        ReflectionTestUtils.setField(bookSearchHydrator, "bookRepository", bookRepository);
+        ReflectionTestUtils.setField(bookSearchHydrator, "entityManagerFactory", entityManagerFactory);
+        ReflectionTestUtils.setField(bookSearchHydrator, "entityManager", entityManager);
+        ReflectionTestUtils.setField(bookSearchHydrator, "jHipsterProperties", jHipsterProperties);
+        ReflectionTestUtils.setField(bookSearchHydrator, "metricRegistry", new MetricRegistry());
+        bookSearchHydrator.init();
+    }
+
+    @Test
+    public void hitsWithTheCachedVersionAreNotReloaded() {
+        givenCached(book(1L, 3L, "cached"), book(2L, 5L, "cached"));
+
+        Page<Book> result = bookSearchHydrator.hydrate(page(book(1L, 3L, "indexed"), book(2L, 5L, "indexed")), pageable);
+
+        assertThat(result.getContent()).extracting("name").containsExactly("indexed", "indexed");
+        verify(bookRepository, never()).findAll(anyListOf(Long.class));
+    }
+
+    @Test
+    public void staleHitsAreReplacedInTheOrderOfTheHits() {
+        givenCached(book(1L, 4L, "cached"));
+        when(bookRepository.findAll(Arrays.asList(2L, 3L)))
+            .thenReturn(Arrays.asList(book(3L, 8L, "current"), book(2L, 5L, "current")));
+
+        Page<Book> result = bookSearchHydrator.hydrate(
+            page(book(1L, 3L, "indexed"), book(2L, 5L, "indexed"), book(3L, 7L, "indexed")), pageable);
+
+        assertThat(result.getContent()).extracting("id").containsExactly(1L, 2L, 3L);
+        assertThat(result.getContent()).extracting("name").containsExactly("cached", "indexed", "current");
+    }
+
+    @Test
+    public void deletedHitsAreSkipped() {
+        when(bookRepository.findAll(Arrays.asList(1L, 2L))).thenReturn(Collections.singletonList(book(2L, 5L, "current")));
+
+        Page<Book> result = bookSearchHydrator.hydrate(page(book(1L, 3L, "deleted"), book(2L, 5L, "indexed")), pageable);
+
+        assertThat(result.getContent()).extracting("id").containsExactly(2L);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    public void indexModeUsesTheHitsAsTheyAre() {
+        jHipsterProperties.getSearch().setHydrationMode(HydrationMode.INDEX);
+        Page<Book> page = page(book(1L, 3L, "indexed"));
+
+        assertThat(bookSearchHydrator.hydrate(page, pageable)).isSameAs(page);
+        verify(bookRepository, never()).findAll(anyListOf(Long.class));
+    }
+
+    @Test
+    public void databaseModeReloadsEveryHit() {
+        jHipsterProperties.getSearch().setHydrationMode(HydrationMode.DATABASE);
+        when(bookRepository.findAll(anyListOf(Long.class))).thenReturn(Collections.singletonList(book(1L, 3L, "current")));
+
+        Page<Book> result = bookSearchHydrator.hydrate(page(book(1L, 3L, "indexed")), pageable);
+
+        assertThat(result.getContent()).extracting("name").containsExactly("current");
+        verify(cache, never()).contains(any(Class.class), any());
+    }
+
+    private void givenCached(Book... books) {
+        for (Book book : books) {
+            when(cache.contains(Book.class, book.getId())).thenReturn(true);
+            when(entityManager.find(eq(Book.class), eq(book.getId()))).thenReturn(book);
+        }
+    }
+
+    private Page<Book> page(Book... books) {
+        List<Book> content = Arrays.asList(books);
+        return new PageImpl<>(content, pageable, content.size());
+    }
+
+    private static Book book(Long id, Long version, String name) {
+        Book book = new Book().name(name);
+        book.setId(id);
+        book.setVersion(version);
+        return book;
+    }
+}
@@ -0,0 +1,65 @@
+package org.jhipster.mymicroserviceapp.web.filter;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+import org.jhipster.mymicroserviceapp.ratelimit.LocalRateLimitStore;
+import org.jhipster.mymicroserviceapp.ratelimit.RateLimiter;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the RateLimitingFilter.
+ *
+ * @see RateLimitingFilter
+ */
+public class RateLimitingFilterTest {
+
+    @After
+    public void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void requestsOverTheLimitAreRejectedWithRetryAfter() throws Exception {
+        JHipsterProperties.RateLimiting.Group group = new JHipsterProperties.RateLimiting.Group();
+        group.setName("search");
+        group.setPaths(Collections.singletonList("/api/_search/**"));
+        group.setRequestsPerSecond(0.5);
+        group.setBurst(1);
+        long now = TimeUnit.DAYS.toMicros(1);
+        RateLimitingFilter filter = new RateLimitingFilter(new RateLimiter(Collections.singletonList(group),
+            new LocalRateLimitStore(100, TimeUnit.MINUTES.toMicros(1)), () -> now, new MetricRegistry()));
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("alice", "token", Collections.emptyList()));
+
+        MockHttpServletResponse allowed = search(filter);
+        MockHttpServletResponse rejected = search(filter);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("bob", "token", Collections.emptyList()));
+        MockHttpServletResponse otherUser = search(filter);
+
+        assertThat(allowed.getStatus()).isEqualTo(200);
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(otherUser.getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse search(RateLimitingFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/_search/books");
+        request.setServletPath("/api/_search/books");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -2,6 +2,7 @@ package org.jhipster.mymicroserviceapp.web.rest;
 
 import org.jhipster.mymicroserviceapp.MymicroserviceappApp;
 
+import org.jhipster.mymicroserviceapp.cache.BookAccessTracker;
 import org.jhipster.mymicroserviceapp.domain.Book;
 import org.jhipster.mymicroserviceapp.repository.BookRepository;
 import org.jhipster.mymicroserviceapp.service.BookService;
@@ -64,6 +65,9 @@ public class BookResourceIntTest {
     @Inject
     private BookSearchRepository bookSearchRepository;
 
+    @Inject
+    private BookAccessTracker bookAccessTracker;
+
     @Inject
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -82,6 +86,7 @@ public class BookResourceIntTest {
         MockitoAnnotations.initMocks(this);
         BookResource bookResource = new BookResource();
         ReflectionTestUtils.setField(bookResource, "bookService", bookService);
+        ReflectionTestUtils.setField(bookResource, "bookAccessTracker", bookAccessTracker);
         this.restBookMockMvc = MockMvcBuilders.standaloneSetup(bookResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setMessageConverters(jacksonMessageConverter).build();
@@ -202,6 +207,7 @@ public class BookResourceIntTest {
 
         // Update the book
         Book updatedBook = bookRepository.findOne(book.getId());
+        long versionBeforeUpdate = updatedBook.getVersion();
         updatedBook
                 .name(UPDATED_NAME)
                 .publishDate(UPDATED_PUBLISH_DATE)
@@ -220,6 +226,7 @@ public class BookResourceIntTest {
         assertThat(testBook.getName()).isEqualTo(UPDATED_NAME);
         assertThat(testBook.getPublishDate()).isEqualTo(UPDATED_PUBLISH_DATE);
         assertThat(testBook.getAuthor()).isEqualTo(UPDATED_AUTHOR);
+        assertThat(testBook.getVersion()).isGreaterThan(versionBeforeUpdate);
 
         // Validate the Book in ElasticSearch
         Book bookEs = bookSearchRepository.findOne(testBook.getId());
@@ -0,0 +1,82 @@
+package org.jhipster.mymicroserviceapp.web.rest;
+
+import org.jhipster.mymicroserviceapp.config.JHipsterProperties;
+import org.jhipster.mymicroserviceapp.config.jcache.JCacheStatisticsCollector;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Test class for the CacheResource REST controller.
+ *
+ * @see CacheResource
+ */
+public class CacheResourceTest {
+
+    @Mock
+    private JCacheStatisticsCollector jCacheStatisticsCollector;
+
+    private MockMvc restCacheMockMvc;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        JHipsterProperties.Cache.Ehcache.Region book = new JHipsterProperties.Cache.Ehcache.Region();
+        book.setName("book");
+        book.setHeapMb(64L);
+        jHipsterProperties.getCache().getEhcache().getRegions().add(book);
+
+        CacheResource cacheResource = new CacheResource();
+        ReflectionTestUtils.setField(cacheResource, "jCacheStatisticsCollector", jCacheStatisticsCollector);
+        ReflectionTestUtils.setField(cacheResource, "jHipsterProperties", jHipsterProperties);
+        this.restCacheMockMvc = MockMvcBuilders.standaloneSetup(cacheResource).build();
+
+        Map<String, Long> entries = new HashMap<>();
+        entries.put("book", 1000L);
+        entries.put("user", 10L);
+        entries.put("authority", 2L);
+        Map<String, Long> estimatedBytes = new HashMap<>();
+        estimatedBytes.put("book", 2000000L);
+        estimatedBytes.put("user", 5000L);
+        estimatedBytes.put("authority", 200L);
+        when(jCacheStatisticsCollector.getEntries()).thenReturn(entries);
+        when(jCacheStatisticsCollector.getEstimatedBytes()).thenReturn(estimatedBytes);
+    }
+
+    @Test
+    public void getCachesByDecreasingSize() throws Exception {
+        restCacheMockMvc.perform(get("/management/caches?top=2"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].name").value("book"))
+            .andExpect(jsonPath("$.[0].entries").value(1000))
+            .andExpect(jsonPath("$.[0].estimatedBytes").value(2000000))
+            .andExpect(jsonPath("$.[0].maxHeapBytes").value(64 * 1024 * 1024))
+            .andExpect(jsonPath("$.[1].name").value("user"))
+            .andExpect(jsonPath("$.[1].maxHeapEntries").value(100));
+    }
+
+    @Test
+    public void getAllTheCachesByDefault() throws Exception {
+        restCacheMockMvc.perform(get("/management/caches"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(3)))
+            .andExpect(jsonPath("$.[2].name").value("authority"));
+    }
+}